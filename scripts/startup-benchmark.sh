@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+#
+# Measures time to first request and resident memory of the application in each startup
+# mode. Build first with: ./mvnw package -Paot -DskipTests
+#
+#   scripts/startup-benchmark.sh [runs]
+#
+# Modes:
+#   jar      the executable jar as built
+#   cds      the extracted jar with its class data sharing archive
+#   aot-cds  the extracted jar with AOT-generated bean definitions and their CDS archive
+#
+# Time to first request runs from launching the JVM to the first 200 answer to
+# GET /api/tasks/stats, which goes through the controller, service and database. RSS is
+# read from /proc right after that answer. Linux only.
+
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+TARGET=$(cd "$(dirname "$0")/../target" && pwd)
+JAR=$(ls "$TARGET"/task-api-*.jar | grep -v original | head -n 1)
+CDS=$TARGET/cds
+
+if [[ ! -f $CDS/application.jsa || ! -f $CDS/application-aot.jsa ]]; then
+    echo "CDS archives missing, build with: ./mvnw package -Paot -DskipTests" >&2
+    exit 1
+fi
+
+command_for() {
+    case $1 in
+        jar) echo "java -jar $JAR" ;;
+        cds) echo "java -XX:SharedArchiveFile=$CDS/application.jsa -jar $CDS/$(basename "$JAR")" ;;
+        aot-cds) echo "java -XX:SharedArchiveFile=$CDS/application-aot.jsa -Dspring.aot.enabled=true -jar $CDS/$(basename "$JAR")" ;;
+    esac
+}
+
+now_millis() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Prints "<milliseconds to first request> <RSS in MB>" for one run of a mode.
+measure() {
+    local start pid elapsed rss
+    start=$(now_millis)
+    $(command_for "$1") --server.port="$PORT" --logging.level.root=WARN > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/api/tasks/stats"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "$1 exited before answering" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    elapsed=$(( $(now_millis) - start ))
+    rss=$(awk '/VmRSS/ { printf "%.0f", $2 / 1024 }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$elapsed $rss"
+}
+
+printf "%-8s %6s %22s %12s\n" mode runs "first request ms (avg)" "RSS MB (avg)"
+for mode in jar cds aot-cds; do
+    measure "$mode" > /dev/null  # warms the page cache
+    results=$(for ((run = 0; run < RUNS; run++)); do measure "$mode"; done)
+    awk -v mode="$mode" -v runs="$RUNS" '
+        { time += $1; rss += $2 }
+        END { printf "%-8s %6d %22.0f %12.0f\n", mode, runs, time / NR, rss / NR }' <<< "$results"
+done
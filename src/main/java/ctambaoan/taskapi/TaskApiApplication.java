@@ -1,9 +1,14 @@
 package ctambaoan.taskapi;
 
+import ctambaoan.taskapi.config.TaskRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
+@EnableCaching
 @SpringBootApplication
+@ImportRuntimeHints(TaskRuntimeHints.class)
 public class TaskApiApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,94 @@
+package ctambaoan.taskapi.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Concurrency limit that adapts to latency, after the gradient limiters of TCP Vegas and
+ * Netflix' concurrency-limits. It keeps a baseline of the latency the service shows when
+ * it is not queueing, which follows faster requests quickly and slower ones only slowly.
+ * Every completed request moves the limit by the gradient {@code tolerance * baseline /
+ * latency}, capped at 1: while latency stays within the tolerance the limit grows by about
+ * {@code sqrt(limit)} headroom, and once requests start queueing (in the connection pool,
+ * the database, or for the CPU) it shrinks until they stop.
+ *
+ * <p>Admission is a compare-and-set on the in-flight count, and the limit and baseline
+ * are one immutable state replaced by compare-and-set, so no request waits for a lock.
+ */
+class AdaptiveConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double BASELINE_RISE = 0.001;
+    private static final double BASELINE_FALL = 0.5;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicReference<State> state;
+
+    AdaptiveConcurrencyLimiter(LoadSheddingProperties properties) {
+        if (properties.minLimit() < 1 || properties.maxLimit() < properties.minLimit()) {
+            throw new IllegalArgumentException("The limits must satisfy 1 <= min <= max");
+        }
+        if (properties.latencyTolerance() < 1) {
+            throw new IllegalArgumentException("The latency tolerance must be at least 1");
+        }
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.tolerance = properties.latencyTolerance();
+        this.state = new AtomicReference<>(new State(clamp(properties.initialLimit()), 0));
+    }
+
+    /**
+     * Admits a request if fewer than the current limit are in flight. Every admitted
+     * request must be {@linkplain #release(long) released}.
+     */
+    boolean tryAcquire() {
+        int limit = limit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long latencyNanos) {
+        int concurrency = inFlight.getAndDecrement();
+        if (latencyNanos > 0) {
+            state.updateAndGet(current -> next(current, latencyNanos, concurrency));
+        }
+    }
+
+    int limit() {
+        return (int) state.get().limit();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private State next(State current, long latency, int concurrency) {
+        double baseline = current.baselineNanos() == 0 ? latency :
+                current.baselineNanos() + (latency - current.baselineNanos()) *
+                        (latency < current.baselineNanos() ? BASELINE_FALL : BASELINE_RISE);
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1, tolerance * baseline / latency));
+        double limit = current.limit();
+        // an idle service says nothing about how much more it could take
+        double headroom = concurrency * 2 >= limit ? Math.sqrt(limit) : 0;
+        double target = limit * gradient + headroom;
+        return new State(clamp(limit * (1 - SMOOTHING) + target * SMOOTHING), baseline);
+    }
+
+    private double clamp(double limit) {
+        return Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    private record State(double limit, double baselineNanos) {
+    }
+}
@@ -0,0 +1,31 @@
+package ctambaoan.taskapi.config;
+
+import ctambaoan.taskapi.service.TaskArchiver;
+import ctambaoan.taskapi.service.TaskService;
+import java.time.Clock;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+
+/**
+ * Runs the {@link TaskArchiver} on Spring Boot's task scheduler with a fixed delay, so a
+ * slow run is never overlapped by the next one. It runs even with archiving disabled, to
+ * purge old tombstones.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ArchiveProperties.class)
+@EnableScheduling
+class ArchiveConfig {
+
+    @Bean
+    TaskArchiver taskArchiver(TaskService service, ArchiveProperties properties) {
+        return new TaskArchiver(service, properties, Clock.systemDefaultZone());
+    }
+
+    @Bean
+    SchedulingConfigurer taskArchiverSchedule(TaskArchiver archiver, ArchiveProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(archiver, properties.interval());
+    }
+}
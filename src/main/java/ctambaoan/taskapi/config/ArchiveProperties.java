@@ -0,0 +1,22 @@
+package ctambaoan.taskapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled   periodically move finished tasks to the archive; old archived tasks and
+ *                  tombstones are purged either way
+ * @param age       how long a DONE or CANCELLED task stays unchanged before it is archived
+ * @param retention how long archived tasks and delete tombstones are kept
+ * @param interval  delay between the end of one archiving run and the start of the next
+ * @param batchSize most rows moved or purged per transaction
+ */
+@ConfigurationProperties("task-api.archive")
+public record ArchiveProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("30d") Duration age,
+        @DefaultValue("365d") Duration retention,
+        @DefaultValue("1m") Duration interval,
+        @DefaultValue("500") int batchSize) {
+}
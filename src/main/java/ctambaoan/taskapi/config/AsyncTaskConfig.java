@@ -0,0 +1,35 @@
+package ctambaoan.taskapi.config;
+
+import ctambaoan.taskapi.service.AsyncTaskService;
+import ctambaoan.taskapi.service.TaskService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gives the async API its own fixed-size executor with a bounded queue, so a burst of
+ * async requests queues up there instead of on the connection pool, and its size and
+ * queue depth show up as {@code executor.*} metrics tagged {@code name=task.async}.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(AsyncTaskProperties.class)
+class AsyncTaskConfig {
+
+    @Bean(destroyMethod = "close")
+    AsyncTaskService asyncTaskService(TaskService service, AsyncTaskProperties properties,
+            MeterRegistry registry) {
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                properties.threads(), properties.threads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                Thread.ofPlatform().name("task-async-", 1).factory());
+        new ExecutorServiceMetrics(executor, "task.async", List.of()).bindTo(registry);
+        return new AsyncTaskService(service, executor);
+    }
+}
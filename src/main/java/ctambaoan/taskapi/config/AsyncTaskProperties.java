@@ -0,0 +1,20 @@
+package ctambaoan.taskapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param threads        threads running repository work for the async API; more than the
+ *                       connection pool size only adds threads waiting for a connection
+ * @param queueCapacity  calls waiting for a thread before new ones are rejected with 503
+ * @param defaultTimeout how long a request may take when it does not ask for a timeout
+ * @param maxTimeout     upper bound for the timeout a request asks for
+ */
+@ConfigurationProperties("task-api.async")
+public record AsyncTaskProperties(
+        @DefaultValue("10") int threads,
+        @DefaultValue("1000") int queueCapacity,
+        @DefaultValue("5s") Duration defaultTimeout,
+        @DefaultValue("30s") Duration maxTimeout) {
+}
@@ -0,0 +1,85 @@
+package ctambaoan.taskapi.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per client and {@link Tier}, in the form of the generic cell rate
+ * algorithm: instead of a token count and a refill time, a bucket is the single instant
+ * at which it will be full again. Admitting a request pushes that instant one emission
+ * interval ({@code 1 / rate}) further; a request is rejected while it would lie more than
+ * {@code burst} intervals ahead, and the excess is how long the client has to wait.
+ *
+ * <p>Because a bucket is one {@code long}, it is updated with a compare-and-set loop: the
+ * buckets of a client are slots of an {@link AtomicLongArray}, and clients are looked up
+ * in a Caffeine cache, whose reads do not lock. Clients that stay idle are evicted, which
+ * only forgets buckets that have refilled anyway.
+ */
+class ClientRateLimiter {
+
+    enum Tier {
+        CHEAP, EXPENSIVE
+    }
+
+    private final long[] intervalNanos = new long[Tier.values().length];
+    private final long[] capacityNanos = new long[Tier.values().length];
+    private final Cache<String, AtomicLongArray> clients;
+    private final LongSupplier nanoTime;
+
+    ClientRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    ClientRateLimiter(RateLimitProperties properties, LongSupplier nanoTime) {
+        configure(Tier.CHEAP, properties.cheapRate(), properties.cheapBurst());
+        configure(Tier.EXPENSIVE, properties.expensiveRate(), properties.expensiveBurst());
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(properties.idleTimeout())
+                .build();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Takes a token from the client's bucket for {@code tier}. Returns {@link Duration#ZERO}
+     * when the request is admitted, otherwise how long until it would be.
+     */
+    Duration tryAcquire(String client, Tier tier) {
+        AtomicLongArray buckets = clients.get(client, key -> newBuckets());
+        int slot = tier.ordinal();
+        long now = nanoTime.getAsLong();
+        while (true) {
+            long fullAt = buckets.get(slot);
+            long next = Math.max(fullAt, now) + intervalNanos[slot];
+            long excess = next - now - capacityNanos[slot];
+            if (excess > 0) {
+                return Duration.ofNanos(excess);
+            }
+            if (buckets.compareAndSet(slot, fullAt, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    private void configure(Tier tier, double rate, int burst) {
+        if (rate <= 0 || burst < 1) {
+            throw new IllegalArgumentException(
+                    "The " + tier.name().toLowerCase(Locale.ROOT) + " rate and burst must be positive");
+        }
+        intervalNanos[tier.ordinal()] = (long) (1_000_000_000L / rate);
+        capacityNanos[tier.ordinal()] = intervalNanos[tier.ordinal()] * burst;
+    }
+
+    private static AtomicLongArray newBuckets() {
+        AtomicLongArray buckets = new AtomicLongArray(Tier.values().length);
+        for (int i = 0; i < buckets.length(); i++) {
+            // full already: any nanoTime() is later
+            buckets.set(i, Long.MIN_VALUE);
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,16 @@
+package ctambaoan.taskapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param maxConcurrentRequests requests allowed into the API at once, defaults to the
+ *                              connection pool size when unset
+ * @param acquireTimeout        how long a request waits for a slot before being rejected
+ */
+@ConfigurationProperties("task-api.connection-limiter")
+public record ConnectionLimiterProperties(
+        Integer maxConcurrentRequests,
+        @DefaultValue("1s") Duration acquireTimeout) {
+}
@@ -0,0 +1,100 @@
+package ctambaoan.taskapi.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Caps the number of requests in flight so that an unbounded number of virtual threads
+ * cannot all queue up on the connection pool. Requests that cannot get a slot within the
+ * acquire timeout are rejected with 503 instead of timing out inside the pool. A slot is
+ * held until the response is complete, including asynchronous (streaming) responses.
+ * The event stream is exempt: it stays open indefinitely but never uses a connection. So
+ * is the async API, whose work already queues on its own executor sized below the pool;
+ * holding a permit across its async requests would cap them at the pool size.
+ */
+class ConnectionPoolLimitFilter extends OncePerRequestFilter {
+
+    private static final String EVENTS_PATH = "/api/tasks/events";
+    private static final String ASYNC_PATH_PREFIX = "/api/async/";
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    ConnectionPoolLimitFilter(int maxConcurrentRequests, Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        if (!tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        boolean releaseOnAsyncComplete = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener());
+                releaseOnAsyncComplete = true;
+            }
+        } finally {
+            if (!releaseOnAsyncComplete) {
+                permits.release();
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return EVENTS_PATH.equals(path) || path.startsWith(ASYNC_PATH_PREFIX);
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private class ReleasingListener implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ctambaoan.taskapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param maximumSize most idempotency keys remembered; the least recently used are
+ *                    forgotten first
+ * @param ttl         how long after the first request a retry with the same key is
+ *                    still recognised
+ */
+@ConfigurationProperties("task-api.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("100000") long maximumSize,
+        @DefaultValue("24h") Duration ttl) {
+}
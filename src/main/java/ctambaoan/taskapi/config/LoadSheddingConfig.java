@@ -0,0 +1,50 @@
+package ctambaoan.taskapi.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Sheds load beyond an adaptive concurrency limit with
+ * {@code task-api.load-shedding.enabled=true}. The event stream is exempt: it stays open
+ * indefinitely while doing almost no work.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnBooleanProperty("task-api.load-shedding.enabled")
+@EnableConfigurationProperties(LoadSheddingProperties.class)
+class LoadSheddingConfig {
+
+    @Bean
+    AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(LoadSheddingProperties properties,
+            MeterRegistry registry) {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        Gauge.builder("task.requests.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Concurrent requests admitted before load is shed")
+                .register(registry);
+        Gauge.builder("task.requests.inflight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .register(registry);
+        return limiter;
+    }
+
+    @Bean
+    WebMvcConfigurer loadSheddingConfigurer(AdaptiveConcurrencyLimiter limiter) {
+        LoadSheddingInterceptor interceptor = new LoadSheddingInterceptor(limiter);
+        return new WebMvcConfigurer() {
+
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor)
+                        .addPathPatterns("/api/**")
+                        .excludePathPatterns("/api/tasks/events")
+                        .order(Ordered.HIGHEST_PRECEDENCE + 1);
+            }
+        };
+    }
+}
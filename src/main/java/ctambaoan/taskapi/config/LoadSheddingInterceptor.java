@@ -0,0 +1,48 @@
+package ctambaoan.taskapi.config;
+
+import ctambaoan.taskapi.exception.ServiceOverloadedException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits requests through an {@link AdaptiveConcurrencyLimiter} and fails the rest with
+ * {@link ServiceOverloadedException}, which is answered with 503. A request holds its slot
+ * until {@code afterCompletion}, which for a streaming response is only called once the
+ * async dispatch that finishes it is done; its latency then feeds the limit.
+ */
+class LoadSheddingInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED = LoadSheddingInterceptor.class.getName() + ".started";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    LoadSheddingInterceptor(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        if (!limiter.tryAcquire()) {
+            throw new ServiceOverloadedException();
+        }
+        request.setAttribute(STARTED, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+            Object handler, Exception ex) {
+
+        if (request.getAttribute(STARTED) instanceof Long started) {
+            request.removeAttribute(STARTED);
+            limiter.release(System.nanoTime() - started);
+        }
+    }
+}
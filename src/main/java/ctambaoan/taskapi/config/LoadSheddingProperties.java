@@ -0,0 +1,21 @@
+package ctambaoan.taskapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled          shed {@code /api/**} requests beyond an adaptive concurrency limit
+ * @param initialLimit     concurrent requests admitted before any latency was measured
+ * @param minLimit         the limit never drops below this
+ * @param maxLimit         the limit never grows beyond this
+ * @param latencyTolerance how many times the baseline latency a request may take before
+ *                         the limit shrinks
+ */
+@ConfigurationProperties("task-api.load-shedding")
+public record LoadSheddingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("2.0") double latencyTolerance) {
+}
@@ -0,0 +1,100 @@
+package ctambaoan.taskapi.config;
+
+import ctambaoan.taskapi.repository.memory.DurableTaskStore;
+import ctambaoan.taskapi.repository.memory.InMemoryArchivedTaskRepository;
+import ctambaoan.taskapi.repository.memory.InMemoryTaskRepository;
+import ctambaoan.taskapi.repository.memory.TaskSnapshotFile;
+import java.time.Duration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Storage engine of the {@code memory} profile, which keeps tasks in
+ * {@link InMemoryTaskRepository} instead of the database. {@code application-memory.properties}
+ * switches off the data source and the JDBC repositories.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("memory")
+@EnableConfigurationProperties(MemoryStorageProperties.class)
+class MemoryStorageConfig {
+
+    @Bean
+    InMemoryTaskRepository taskRepository(MemoryStorageProperties properties) {
+        return new InMemoryTaskRepository(properties.initialCapacity());
+    }
+
+    @Bean
+    InMemoryArchivedTaskRepository archivedTaskRepository(InMemoryTaskRepository tasks) {
+        return new InMemoryArchivedTaskRepository(tasks);
+    }
+
+    @Bean(initMethod = "load", destroyMethod = "save")
+    @ConditionalOnProperty("task-api.memory.snapshot-file")
+    @ConditionalOnBooleanProperty(name = "task-api.memory.wal.enabled", havingValue = false, matchIfMissing = true)
+    TaskSnapshotFile taskSnapshotFile(InMemoryTaskRepository tasks, MemoryStorageProperties properties) {
+        return new TaskSnapshotFile(tasks, properties.snapshotFile());
+    }
+
+    /**
+     * Each repository call is atomic on its own, so there is nothing to commit. The manager
+     * still runs transaction synchronization, which delivers transactional events after the
+     * service method returns, as with the JDBC engine.
+     */
+    @Bean
+    PlatformTransactionManager transactionManager() {
+        return new SynchronizationOnlyTransactionManager();
+    }
+
+    /**
+     * Recovers the tasks before anything reads them and takes a snapshot every
+     * {@code snapshot-interval}, starting one interval after startup, and on shutdown.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnBooleanProperty("task-api.memory.wal.enabled")
+    @EnableScheduling
+    static class WriteAheadLogConfig {
+
+        @Bean(initMethod = "open", destroyMethod = "snapshotAndClose")
+        DurableTaskStore durableTaskStore(InMemoryTaskRepository tasks, MemoryStorageProperties properties) {
+            MemoryStorageProperties.Wal wal = properties.wal();
+            return new DurableTaskStore(tasks, wal.directory(), wal.fsync(), wal.syncInterval());
+        }
+
+        @Bean
+        SchedulingConfigurer taskSnapshotSchedule(DurableTaskStore store, MemoryStorageProperties properties) {
+            Duration interval = properties.wal().snapshotInterval();
+            return registrar -> registrar.addFixedDelayTask(new FixedDelayTask(store::snapshot, interval, interval));
+        }
+    }
+
+    static class SynchronizationOnlyTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
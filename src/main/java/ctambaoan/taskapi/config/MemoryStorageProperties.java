@@ -0,0 +1,38 @@
+package ctambaoan.taskapi.config;
+
+import ctambaoan.taskapi.repository.memory.FsyncPolicy;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param initialCapacity tasks the in-memory engine is sized for before it has to grow
+ * @param snapshotFile    file the tasks are loaded from on startup and saved to on
+ *                        shutdown; nothing is persisted when unset. Ignored when the
+ *                        write-ahead log is enabled
+ * @param wal             durable storage with a write-ahead log and snapshots
+ */
+@ConfigurationProperties("task-api.memory")
+public record MemoryStorageProperties(
+        @DefaultValue("1024") int initialCapacity,
+        Path snapshotFile,
+        @DefaultValue Wal wal) {
+
+    /**
+     * @param enabled          log every change and recover from the log on startup
+     * @param directory        where log segments and snapshots are kept
+     * @param fsync            when logged changes are forced to disk
+     * @param syncInterval     how often the log is written, and synced with
+     *                         {@link FsyncPolicy#INTERVAL}; writes under
+     *                         {@link FsyncPolicy#ALWAYS} are synced right away
+     * @param snapshotInterval delay between snapshots, each of which compacts the log
+     */
+    public record Wal(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("data") Path directory,
+            @DefaultValue("ALWAYS") FsyncPolicy fsync,
+            @DefaultValue("100ms") Duration syncInterval,
+            @DefaultValue("10m") Duration snapshotInterval) {
+    }
+}
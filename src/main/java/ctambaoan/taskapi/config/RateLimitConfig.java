@@ -0,0 +1,37 @@
+package ctambaoan.taskapi.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Rate limits the API per client with {@code task-api.rate-limit.enabled=true}. The event
+ * stream is exempt: a client opens it once and keeps it.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnBooleanProperty("task-api.rate-limit.enabled")
+@EnableConfigurationProperties(RateLimitProperties.class)
+class RateLimitConfig {
+
+    @Bean
+    WebMvcConfigurer rateLimitConfigurer(RateLimitProperties properties) {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(
+                new ClientRateLimiter(properties), properties.clientIdHeader(),
+                properties.trustedProxies());
+        return new WebMvcConfigurer() {
+
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                // rejects abusive clients before they take a slot from the load shedder
+                registry.addInterceptor(interceptor)
+                        .addPathPatterns("/api/**")
+                        .excludePathPatterns("/api/tasks/events")
+                        .order(Ordered.HIGHEST_PRECEDENCE);
+            }
+        };
+    }
+}
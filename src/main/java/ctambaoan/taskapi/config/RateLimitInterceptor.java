@@ -0,0 +1,69 @@
+package ctambaoan.taskapi.config;
+
+import ctambaoan.taskapi.config.ClientRateLimiter.Tier;
+import ctambaoan.taskapi.controller.ExpensiveOperation;
+import ctambaoan.taskapi.exception.RateLimitExceededException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Set;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Charges every request to its client's rate limit before the handler runs. Handlers
+ * annotated with {@link ExpensiveOperation} draw on the expensive budget, everything else
+ * on the cheap one, so a client listing all tasks in a loop runs out long before it could
+ * starve clients reading single tasks. A rejected request fails with
+ * {@link RateLimitExceededException}, which is answered with 429.
+ */
+class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final ClientRateLimiter limiter;
+    private final String clientIdHeader;
+    private final Set<String> trustedProxies;
+
+    RateLimitInterceptor(ClientRateLimiter limiter, String clientIdHeader,
+            Set<String> trustedProxies) {
+        this.limiter = limiter;
+        this.clientIdHeader = clientIdHeader;
+        this.trustedProxies = trustedProxies;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            // the async dispatch completing a streaming response was charged already
+            return true;
+        }
+        Duration retryAfter = limiter.tryAcquire(client(request), tier(handler));
+        if (!retryAfter.isZero()) {
+            throw new RateLimitExceededException(retryAfter);
+        }
+        return true;
+    }
+
+    /**
+     * The client id header is only believed from a trusted proxy; from anywhere else a
+     * fresh id per request would get a fresh budget.
+     */
+    private String client(HttpServletRequest request) {
+        String remoteAddress = request.getRemoteAddr();
+        if (clientIdHeader == null || !trustedProxies.contains(remoteAddress)) {
+            return remoteAddress;
+        }
+        String clientId = request.getHeader(clientIdHeader);
+        return StringUtils.hasText(clientId) ? clientId : remoteAddress;
+    }
+
+    private static Tier tier(Object handler) {
+        return handler instanceof HandlerMethod method &&
+                method.hasMethodAnnotation(ExpensiveOperation.class) ?
+                Tier.EXPENSIVE :
+                Tier.CHEAP;
+    }
+}
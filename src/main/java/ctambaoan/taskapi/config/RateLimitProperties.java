@@ -0,0 +1,36 @@
+package ctambaoan.taskapi.config;
+
+import java.time.Duration;
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled        rate limit {@code /api/**} per client
+ * @param clientIdHeader header naming the client, for deployments behind a gateway that
+ *                       sets it; clients are told apart by remote address when unset or
+ *                       absent
+ * @param trustedProxies remote addresses whose {@code clientIdHeader} is believed; any
+ *                       other client could pick a fresh id per request to get a fresh
+ *                       budget, so it is limited by its own address
+ * @param cheapRate      sustained requests per second a client may make to ordinary
+ *                       endpoints
+ * @param cheapBurst     requests a client may make to them at once after being idle
+ * @param expensiveRate  sustained requests per second a client may make to endpoints that
+ *                       read an unbounded number of tasks
+ * @param expensiveBurst requests a client may make to those at once after being idle
+ * @param maxClients     clients tracked at once; the least recently seen are forgotten
+ * @param idleTimeout    how long an idle client is remembered
+ */
+@ConfigurationProperties("task-api.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        String clientIdHeader,
+        @DefaultValue Set<String> trustedProxies,
+        @DefaultValue("50") double cheapRate,
+        @DefaultValue("100") int cheapBurst,
+        @DefaultValue("1") double expensiveRate,
+        @DefaultValue("5") int expensiveBurst,
+        @DefaultValue("100000") long maxClients,
+        @DefaultValue("10m") Duration idleTimeout) {
+}
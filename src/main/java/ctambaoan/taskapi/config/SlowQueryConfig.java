@@ -0,0 +1,36 @@
+package ctambaoan.taskapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wraps the data source in a {@link SlowQueryDataSource} with
+ * {@code task-api.slow-query.enabled=true}. The pool stays reachable through
+ * {@link DataSource#unwrap}, so its metrics and health check are unaffected.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnBooleanProperty("task-api.slow-query.enabled")
+@EnableConfigurationProperties(SlowQueryProperties.class)
+class SlowQueryConfig {
+
+    @Bean
+    static BeanPostProcessor slowQueryDataSourcePostProcessor(
+            ObjectProvider<SlowQueryProperties> properties, ObjectProvider<MeterRegistry> registry) {
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource) ?
+                        new SlowQueryDataSource(dataSource, properties.getObject().threshold(),
+                                registry.getObject()) :
+                        bean;
+            }
+        };
+    }
+}
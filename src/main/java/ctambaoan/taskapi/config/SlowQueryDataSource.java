@@ -0,0 +1,165 @@
+package ctambaoan.taskapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Times every statement executed on connections of the target data source. A statement
+ * that takes at least the threshold is logged with its SQL and its bind shape, the type of
+ * each bound parameter, and recorded in the {@value #METRIC} timer tagged with its kind.
+ * Bound values are never logged, since they can hold user data.
+ */
+@Slf4j
+class SlowQueryDataSource extends DelegatingDataSource {
+
+    static final String METRIC = "task.jdbc.slow-statements";
+
+    private static final Set<String> KINDS = Set.of("select", "insert", "update", "delete", "merge");
+
+    private final long thresholdNanos;
+    private final MeterRegistry registry;
+
+    SlowQueryDataSource(DataSource target, Duration threshold, MeterRegistry registry) {
+        super(target);
+        this.thresholdNanos = threshold.toNanos();
+        this.registry = registry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private Connection timed(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private void report(String sql, SortedMap<Integer, String> binds, int batchSize, long nanos) {
+        String kind = kind(sql);
+        Timer.builder(METRIC)
+                .description("JDBC statements slower than task-api.slow-query.threshold")
+                .tag("kind", kind)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        log.warn("Slow {} took {} ms: {} binds={}{}", kind, TimeUnit.NANOSECONDS.toMillis(nanos),
+                sql.strip().replaceAll("\\s+", " "), binds.values(),
+                batchSize > 0 ? " batch=" + batchSize : "");
+    }
+
+    private static String kind(String sql) {
+        String keyword = sql.strip().split("\\s", 2)[0].toLowerCase(Locale.ROOT);
+        return KINDS.contains(keyword) ? keyword : "other";
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[] {method.getReturnType()},
+                        new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Records the type of every bound parameter and times the execute methods.
+     */
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private final SortedMap<Integer, String> binds = new TreeMap<>();
+        private int batchSize;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (target instanceof PreparedStatement && name.startsWith("set")
+                    && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                binds.put(index, bindType(name, args[1]));
+            } else if (name.equals("clearParameters")) {
+                binds.clear();
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            } else if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            return SlowQueryDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return SlowQueryDataSource.invoke(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                String executed = args != null && args.length > 0 && args[0] instanceof String text ?
+                        text :
+                        sql;
+                if (elapsed >= thresholdNanos && executed != null) {
+                    report(executed, new TreeMap<>(binds), batchSize, elapsed);
+                }
+                if (method.getName().equals("executeBatch")) {
+                    batchSize = 0;
+                }
+            }
+        }
+
+        private static String bindType(String setter, Object value) {
+            return switch (setter) {
+                case "setNull" -> "null";
+                case "setObject" -> value == null ? "null" : value.getClass().getSimpleName();
+                default -> setter.substring("set".length());
+            };
+        }
+    }
+}
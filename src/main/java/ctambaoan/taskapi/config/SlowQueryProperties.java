@@ -0,0 +1,15 @@
+package ctambaoan.taskapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled   time every JDBC statement and report the slow ones
+ * @param threshold statements taking at least this long are logged and counted
+ */
+@ConfigurationProperties("task-api.slow-query")
+public record SlowQueryProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100ms") Duration threshold) {
+}
@@ -0,0 +1,21 @@
+package ctambaoan.taskapi.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(TaskEventProperties.class)
+class TaskEventConfig {
+
+    /**
+     * One virtual thread per event stream. Shutting it down with the context interrupts
+     * the streams still open, which then complete their responses.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    ExecutorService taskEventStreamExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-event-stream-", 1).factory());
+    }
+}
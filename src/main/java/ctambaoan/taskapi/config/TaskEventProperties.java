@@ -0,0 +1,19 @@
+package ctambaoan.taskapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param bufferSize          most recent events kept for subscribers resuming with
+ *                            {@code Last-Event-ID}
+ * @param subscriberQueueSize events that may wait for a slow subscriber before it is
+ *                            disconnected
+ * @param heartbeatInterval   longest an idle stream goes without a keep-alive comment
+ */
+@ConfigurationProperties("task-api.events")
+public record TaskEventProperties(
+        @DefaultValue("1024") int bufferSize,
+        @DefaultValue("256") int subscriberQueueSize,
+        @DefaultValue("15s") Duration heartbeatInterval) {
+}
@@ -0,0 +1,9 @@
+package ctambaoan.taskapi.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(TaskListCacheProperties.class)
+class TaskListCacheConfig {
+}
@@ -0,0 +1,15 @@
+package ctambaoan.taskapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * @param maxBodySize largest serialized list kept in the cache; larger lists are built for
+ *                    every request, since the cache would pin them twice, plain and gzipped,
+ *                    and rebuild them after every write
+ */
+@ConfigurationProperties("task-api.list-cache")
+public record TaskListCacheProperties(
+        @DefaultValue("1MB") DataSize maxBodySize) {
+}
@@ -0,0 +1,30 @@
+package ctambaoan.taskapi.config;
+
+import ctambaoan.taskapi.service.TaskLeaseReaper;
+import ctambaoan.taskapi.service.TaskService;
+import java.time.Clock;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+
+/**
+ * Runs the {@link TaskLeaseReaper} with a fixed delay. Leases only mean something if
+ * expired ones are reaped, so unlike archiving this is always on.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(TaskQueueProperties.class)
+@EnableScheduling
+class TaskQueueConfig {
+
+    @Bean
+    TaskLeaseReaper taskLeaseReaper(TaskService service, TaskQueueProperties properties) {
+        return new TaskLeaseReaper(service, properties, Clock.systemDefaultZone());
+    }
+
+    @Bean
+    SchedulingConfigurer taskLeaseReaperSchedule(TaskLeaseReaper reaper, TaskQueueProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(reaper, properties.reaperInterval());
+    }
+}
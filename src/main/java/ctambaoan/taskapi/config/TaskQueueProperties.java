@@ -0,0 +1,21 @@
+package ctambaoan.taskapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param leaseDuration  how long a claimed task stays with its worker unless the lease is
+ *                       renewed
+ * @param maxClaim       most tasks one claim may take
+ * @param reaperInterval delay between the end of one run of the lease reaper and the start
+ *                       of the next
+ * @param reaperBatchSize most expired leases released per transaction
+ */
+@ConfigurationProperties("task-api.queue")
+public record TaskQueueProperties(
+        @DefaultValue("5m") Duration leaseDuration,
+        @DefaultValue("100") int maxClaim,
+        @DefaultValue("10s") Duration reaperInterval,
+        @DefaultValue("500") int reaperBatchSize) {
+}
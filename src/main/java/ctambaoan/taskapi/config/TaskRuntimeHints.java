@@ -0,0 +1,40 @@
+package ctambaoan.taskapi.config;
+
+import ctambaoan.taskapi.domain.ArchivedTask;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskEvent;
+import ctambaoan.taskapi.dto.SparseTaskResponse;
+import ctambaoan.taskapi.dto.TaskColumns;
+import ctambaoan.taskapi.dto.TaskEpochResponse;
+import ctambaoan.taskapi.dto.TaskPage;
+import ctambaoan.taskapi.dto.TaskResponse;
+import ctambaoan.taskapi.repository.TaskStatusCount;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection a native image needs beyond what Spring infers at build time. Spring Data
+ * JDBC reads and writes the entities through their fields and persistence constructor,
+ * and maps query results onto {@link TaskStatusCount}. Jackson writes bodies that
+ * handlers return as {@code ResponseEntity<?>}, the cached list bytes and the event
+ * stream, whose types cannot be read off the handler signatures.
+ */
+public class TaskRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> entity : new Class<?>[] {Task.class, ArchivedTask.class, TaskStatusCount.class}) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        bindings.registerReflectionHints(hints.reflection(),
+                TaskResponse.class, TaskEpochResponse.class, SparseTaskResponse.class,
+                TaskColumns.class, TaskPage.class, TaskEvent.class);
+    }
+}
@@ -0,0 +1,47 @@
+package ctambaoan.taskapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With {@code spring.threads.virtual.enabled=true} Spring Boot serves requests and runs
+ * async work (including streaming responses) on virtual threads. Tomcat then no longer
+ * bounds concurrency with its worker pool, so this adds a limiter sized to the
+ * connection pool in front of the API.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(ConnectionLimiterProperties.class)
+class VirtualThreadConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    FilterRegistrationBean<ConnectionPoolLimitFilter> connectionPoolLimitFilter(
+            ConnectionLimiterProperties properties, ObjectProvider<DataSource> dataSource) {
+
+        int maxConcurrentRequests = properties.maxConcurrentRequests() != null ?
+                properties.maxConcurrentRequests() :
+                poolSize(dataSource.getIfAvailable());
+        FilterRegistrationBean<ConnectionPoolLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConnectionPoolLimitFilter(
+                        maxConcurrentRequests, properties.acquireTimeout()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        HikariDataSource hikari = dataSource != null ?
+                DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class) :
+                null;
+        return hikari != null ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+    }
+}
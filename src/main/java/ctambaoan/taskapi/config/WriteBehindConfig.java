@@ -0,0 +1,31 @@
+package ctambaoan.taskapi.config;
+
+import ctambaoan.taskapi.repository.TaskRepository;
+import ctambaoan.taskapi.service.TaskMetrics;
+import ctambaoan.taskapi.service.TaskWriteBehindQueue;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jdbc.core.JdbcAggregateOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnBooleanProperty("task-api.write-behind.enabled")
+@Profile("!memory")
+@EnableConfigurationProperties(WriteBehindProperties.class)
+class WriteBehindConfig {
+
+    @Bean
+    TaskWriteBehindQueue taskWriteBehindQueue(TaskRepository repository,
+            JdbcAggregateOperations aggregates, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher events, CacheManager cacheManager, TaskMetrics metrics,
+            WriteBehindProperties properties) {
+        return new TaskWriteBehindQueue(repository, aggregates,
+                new TransactionTemplate(transactionManager), events, cacheManager, metrics, properties);
+    }
+}
@@ -0,0 +1,25 @@
+package ctambaoan.taskapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled       buffer created tasks and insert them in batches
+ * @param capacity      tasks that may wait in the buffer before creation applies backpressure
+ * @param batchSize     most tasks written by one multi-row insert
+ * @param flushInterval longest a buffered task waits for its batch to fill up
+ * @param offerTimeout  how long a create waits for room in a full buffer before failing
+ * @param idBlockSize   ids reserved from the sequence per database round trip
+ * @param writeTimeout  how long a write to a task waits for that task's insert before failing
+ */
+@ConfigurationProperties("task-api.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("100ms") Duration flushInterval,
+        @DefaultValue("100ms") Duration offerTimeout,
+        @DefaultValue("1000") int idBlockSize,
+        @DefaultValue("5s") Duration writeTimeout) {
+}
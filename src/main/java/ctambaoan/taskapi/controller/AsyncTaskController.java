@@ -0,0 +1,139 @@
+package ctambaoan.taskapi.controller;
+
+import ctambaoan.taskapi.config.AsyncTaskProperties;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.dto.CreateTaskRequest;
+import ctambaoan.taskapi.dto.TaskPage;
+import ctambaoan.taskapi.dto.TaskResponse;
+import ctambaoan.taskapi.dto.UpdateDescriptionRequest;
+import ctambaoan.taskapi.service.AsyncTaskService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * Asynchronous variant of the core task endpoints. Each handler hands its work to
+ * {@link AsyncTaskService} and returns at once, releasing the servlet thread; the response
+ * is written when the work completes. A request fails after {@code timeout} milliseconds
+ * (default {@code task-api.async.default-timeout}, at most {@code task-api.async.max-timeout}):
+ * with 503 when its work had not started and is dropped, or with 504 when it had started
+ * and may still take effect. Its work is also cancelled when the client goes away.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/async/tasks")
+public class AsyncTaskController {
+
+    private final AsyncTaskService service;
+    private final AsyncTaskProperties properties;
+
+    @PostMapping
+    public DeferredResult<ResponseEntity<TaskResponse>> create(
+            @Valid @RequestBody CreateTaskRequest request,
+            @RequestParam(required = false) @Min(1) Long timeout) {
+
+        Duration limit = timeout(timeout);
+        return defer(service.create(request.name(), request.description(), limit), limit,
+                task -> ResponseEntity.status(HttpStatus.CREATED)
+                        .eTag(TaskController.eTag(task))
+                        .body(TaskResponse.map(task)));
+    }
+
+    @GetMapping("/{id}")
+    public DeferredResult<ResponseEntity<TaskResponse>> findById(@PathVariable Long id,
+            @RequestParam(required = false) @Min(1) Long timeout) {
+
+        Duration limit = timeout(timeout);
+        return defer(service.findById(id, limit), limit,
+                task -> ResponseEntity.ok()
+                        .eTag(TaskController.eTag(task))
+                        .body(TaskResponse.map(task)));
+    }
+
+    @GetMapping
+    public DeferredResult<ResponseEntity<TaskPage>> findPage(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(TaskController.MAX_PAGE_SIZE) int limit,
+            @RequestParam(required = false) @Min(1) Long timeout) {
+
+        Duration timeLimit = timeout(timeout);
+        return defer(service.findPage(status, after, limit, timeLimit), timeLimit,
+                tasks -> ResponseEntity.ok(TaskPage.map(tasks, limit)));
+    }
+
+    @PutMapping("/{id}/complete")
+    public DeferredResult<ResponseEntity<Object>> completeTask(@PathVariable Long id,
+            @RequestParam(required = false) @Min(1) Long timeout) {
+
+        Duration limit = timeout(timeout);
+        return defer(service.markAsDone(id, limit), limit, done -> ResponseEntity.noContent().build());
+    }
+
+    @PutMapping("/{id}")
+    public DeferredResult<ResponseEntity<Object>> updateDescription(@PathVariable Long id,
+            @Valid @RequestBody UpdateDescriptionRequest request,
+            @RequestParam(required = false) @Min(1) Long timeout) {
+
+        Duration limit = timeout(timeout);
+        return defer(service.updateDescription(id, request.description(), limit), limit,
+                done -> ResponseEntity.noContent().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public DeferredResult<ResponseEntity<Object>> deleteTask(@PathVariable Long id,
+            @RequestParam(required = false) @Min(1) Long timeout) {
+
+        Duration limit = timeout(timeout);
+        return defer(service.delete(id, limit), limit, done -> ResponseEntity.noContent().build());
+    }
+
+    private Duration timeout(Long timeoutMillis) {
+        return timeoutMillis == null ?
+                properties.defaultTimeout() :
+                Duration.ofMillis(Math.min(timeoutMillis, properties.maxTimeout().toMillis()));
+    }
+
+    /**
+     * Completes the returned result with the mapped value of {@code work}, or with its
+     * failure for the exception handlers; the work times itself out. The servlet
+     * container's own async timeout is set past that, so it only fires if the work's
+     * somehow did not.
+     */
+    private <T, R> DeferredResult<R> defer(CompletableFuture<T> work, Duration timeout,
+            Function<T, R> response) {
+
+        DeferredResult<R> result = new DeferredResult<>(timeout.toMillis() + 1000);
+        result.onTimeout(() -> work.cancel(false));
+        result.onError(ex -> work.cancel(false));
+        work.whenComplete((value, ex) -> {
+            Throwable failure = ex instanceof CompletionException && ex.getCause() != null ?
+                    ex.getCause() :
+                    ex;
+            if (failure != null) {
+                result.setErrorResult(failure);
+            } else {
+                result.setResult(response.apply(value));
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,17 @@
+package ctambaoan.taskapi.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint that reads an unbounded number of tasks. The rate limiter charges it
+ * against each client's expensive budget instead of the cheap one.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpensiveOperation {
+}
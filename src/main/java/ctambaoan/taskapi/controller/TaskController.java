@@ -1,15 +1,47 @@
 package ctambaoan.taskapi.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ctambaoan.taskapi.config.TaskQueueProperties;
 import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskField;
+import ctambaoan.taskapi.domain.TaskProjection;
 import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.dto.ArchivePage;
+import ctambaoan.taskapi.dto.BatchCreateTaskRequest;
 import ctambaoan.taskapi.dto.CreateTaskRequest;
+import ctambaoan.taskapi.dto.LeaseRequest;
+import ctambaoan.taskapi.dto.SparseTaskResponse;
+import ctambaoan.taskapi.dto.TaskBatchResult;
+import ctambaoan.taskapi.dto.TaskChangesResponse;
+import ctambaoan.taskapi.dto.TaskColumns;
+import ctambaoan.taskapi.dto.TaskEpochResponse;
+import ctambaoan.taskapi.dto.TaskIdsRequest;
+import ctambaoan.taskapi.dto.TaskPage;
 import ctambaoan.taskapi.dto.TaskResponse;
+import ctambaoan.taskapi.dto.TimestampFormat;
 import ctambaoan.taskapi.dto.UpdateDescriptionRequest;
+import ctambaoan.taskapi.exception.TaskVersionMismatchException;
+import ctambaoan.taskapi.service.TaskIdempotencyStore;
+import ctambaoan.taskapi.service.TaskIdempotencyStore.Creation;
 import ctambaoan.taskapi.service.TaskService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,59 +49,362 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/tasks")
 public class TaskController {
 
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final TaskService service;
+    private final TaskIdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final TaskQueueProperties queueProperties;
+    private final TaskListResponseCache listCache;
 
+    /**
+     * With an {@value #IDEMPOTENCY_KEY} header, a retry of a create answers with the task
+     * created the first time and {@value #IDEMPOTENT_REPLAYED}{@code : true}, and reusing the
+     * key for a different task is rejected with 422.
+     */
     @PostMapping
-    public ResponseEntity<TaskResponse> create(@Valid @RequestBody CreateTaskRequest request) {
-        Task task = service.create(request.name(), request.description());
+    public ResponseEntity<TaskResponse> create(
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) @Size(min = 1, max = 255) String idempotencyKey,
+            @Valid @RequestBody CreateTaskRequest request) {
+
+        if (idempotencyKey == null) {
+            Task task = service.create(request.name(), request.description());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .eTag(eTag(task))
+                    .body(TaskResponse.map(task));
+        }
+        Creation creation = idempotencyStore.create(idempotencyKey, request.name(), request.description());
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(TaskResponse.map(task));
+                .eTag(eTag(creation.task()))
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(creation.replayed()))
+                .body(TaskResponse.map(creation.task()));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskResponse>> createAll(
+            @Valid @RequestBody BatchCreateTaskRequest request) {
+
+        List<Task> tasks = service.createAll(request.tasks().stream()
+                .map(task -> new Task(task.name(), task.description()))
+                .toList());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(tasks.stream()
+                        .map(TaskResponse::map)
+                        .toList());
     }
 
+    /**
+     * The ETag is the task version; Spring answers a matching If-None-Match with 304. With
+     * {@code fields}, only those columns are read and written.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<TaskResponse> findById(@PathVariable Long id) {
+    public ResponseEntity<?> findById(@PathVariable Long id,
+            @RequestParam(required = false) Set<TaskField> fields) {
+
+        if (fields != null && !fields.isEmpty()) {
+            TaskProjection task = service.findProjectionById(id, EnumSet.copyOf(fields));
+            return ResponseEntity.ok()
+                    .eTag(String.valueOf(task.version()))
+                    .body(SparseTaskResponse.map(task, TimestampFormat.ISO));
+        }
         Task task = service.findById(id);
-        return ResponseEntity.ok(TaskResponse.map(task));
+        return ResponseEntity.ok()
+                .eTag(eTag(task))
+                .body(TaskResponse.map(task));
     }
 
+    /**
+     * Negotiated as JSON or, with {@code Accept: application/cbor}, CBOR. The list changes
+     * with every write, so caches must revalidate and keep one copy per representation.
+     * With {@code fields}, only those columns are selected and written. The plain JSON list
+     * is served from {@link TaskListResponseCache}, gzipped if the client accepts it, with
+     * an ETag that Spring answers with 304 when it matches If-None-Match.
+     */
+    @ExpensiveOperation
     @GetMapping
-    public ResponseEntity<List<TaskResponse>> findAllOrByStatus(
+    public ResponseEntity<?> findAllOrByStatus(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(defaultValue = "ISO") TimestampFormat timestamps,
+            @RequestParam(required = false) Set<TaskField> fields,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        if ((fields == null || fields.isEmpty()) && timestamps == TimestampFormat.ISO
+                && acceptsCachedJson(accept)) {
+            TaskListResponseCache.Body body = listCache.get(status);
+            ResponseEntity.BodyBuilder response = listResponse()
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .eTag(body.eTag())
+                    .contentType(MediaType.APPLICATION_JSON);
+            return acceptsGzip(acceptEncoding) ?
+                    response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzipped()) :
+                    response.body(body.json());
+        }
+        if (fields != null && !fields.isEmpty()) {
+            return listResponse().body(service.findProjections(status, EnumSet.copyOf(fields)).stream()
+                    .map(task -> SparseTaskResponse.map(task, timestamps))
+                    .toList());
+        }
+        List<Task> tasks = findAllOrByStatus(status);
+        return listResponse().body(timestamps == TimestampFormat.EPOCH ?
+                tasks.stream()
+                        .map(TaskEpochResponse::map)
+                        .toList() :
+                tasks.stream()
+                        .map(TaskResponse::map)
+                        .toList());
+    }
+
+    @ExpensiveOperation
+    @GetMapping(produces = TaskColumns.MEDIA_TYPE)
+    public ResponseEntity<TaskColumns> findAllOrByStatusAsColumns(
             @RequestParam(required = false) TaskStatus status) {
 
+        return listResponse()
+                .contentType(MediaType.parseMediaType(TaskColumns.MEDIA_TYPE))
+                .body(TaskColumns.map(findAllOrByStatus(status)));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskResponse>> search(
+            @RequestParam("q") @NotBlank String query,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+
+        return ResponseEntity.ok(service.search(query, limit).stream()
+                .map(TaskResponse::map)
+                .toList());
+    }
+
+    /**
+     * Delta sync in pages of up to {@code limit} changes in commit order. While a response
+     * has an {@code after}, pass its {@code watermark} as {@code since} together with
+     * {@code after} to get the next page. Once it has none, pass its {@code watermark} as
+     * {@code since} next time to get only the tasks changed and the ids deleted since.
+     * Without {@code since} every task is returned.
+     */
+    @ExpensiveOperation
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesResponse> findChangedSince(
+            @RequestParam(required = false) @Min(0) Long since,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+
+        return ResponseEntity.ok(TaskChangesResponse.map(service.findChangedSince(since, after, limit)));
+    }
+
+    /**
+     * Keyset pages over archived tasks in id order, like {@link #findPage}.
+     */
+    @GetMapping("/archive")
+    public ResponseEntity<ArchivePage> findArchivePage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+
+        return ResponseEntity.ok(ArchivePage.map(service.findArchivePage(after, limit), limit));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<TaskStatus, Long>> countByStatus() {
+        return ResponseEntity.ok(service.countByStatus());
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<TaskPage> findPage(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Long after,
+            @RequestParam @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+
         List<Task> tasks = status == null ?
-                service.findAll() :
-                service.findByStatus(status);
+                service.findPage(after, limit) :
+                service.findPageByStatus(status, after, limit);
+        return ResponseEntity.ok(TaskPage.map(tasks, limit));
+    }
+
+    /**
+     * Writes one JSON object per line as rows come off the database cursor, so memory
+     * use does not grow with the size of the table.
+     */
+    @ExpensiveOperation
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllOrByStatus(
+            @RequestParam(required = false) TaskStatus status) {
+
+        StreamingResponseBody body = out -> {
+            try (Stream<Task> tasks = status == null ?
+                    service.streamAll() :
+                    service.streamByStatus(status);
+                 JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                Iterator<Task> iterator = tasks.iterator();
+                while (iterator.hasNext()) {
+                    generator.writePOJO(TaskResponse.map(iterator.next()));
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Work-queue pull: moves up to {@code max} (at most {@code task-api.queue.max-claim}) of
+     * the oldest TODO tasks to IN_PROGRESS, leased to the claimant. Concurrent claims never
+     * return the same task. A worker finishes a task by completing it, ideally with the
+     * version it claimed as {@code If-Match}; a lease that runs out hands the task back.
+     */
+    @PostMapping("/claim")
+    public ResponseEntity<List<TaskResponse>> claim(
+            @RequestParam(defaultValue = "1") @Min(1) int max,
+            @Valid @RequestBody LeaseRequest request) {
+
+        List<Task> tasks = service.claim(request.claimant(), queueProperties.leaseDuration(),
+                Math.min(max, queueProperties.maxClaim()));
         return ResponseEntity.ok(tasks.stream()
                 .map(TaskResponse::map)
                 .toList());
     }
 
+    /**
+     * Extends the claimant's lease by a full lease duration; 409 if the task is not leased
+     * to it (any more).
+     */
+    @PutMapping("/{id}/lease")
+    public ResponseEntity<TaskResponse> renewLease(@PathVariable Long id,
+            @Valid @RequestBody LeaseRequest request) {
+
+        Task task = service.renewLease(id, request.claimant(), queueProperties.leaseDuration());
+        return ResponseEntity.ok()
+                .eTag(eTag(task))
+                .body(TaskResponse.map(task));
+    }
+
     @PutMapping("/{id}/complete")
-    public ResponseEntity<Object> completeTask(@PathVariable Long id) {
-        service.markAsDone(id);
+    public ResponseEntity<Object> completeTask(@PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long version = expectedVersion(id, ifMatch);
+        if (version == null) {
+            service.markAsDone(id);
+        } else {
+            service.markAsDone(id, version);
+        }
         return ResponseEntity.noContent().build();
     }
 
+    @PutMapping("/complete")
+    public ResponseEntity<List<TaskBatchResult>> completeTasks(
+            @Valid @RequestBody TaskIdsRequest request) {
+        Set<Long> completed = service.markAllAsDone(request.ids());
+        return ResponseEntity.ok(TaskBatchResult.map(request.ids(), completed));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Object> updateDescription(@PathVariable Long id,
-            @Valid @RequestBody UpdateDescriptionRequest request) {
-        service.updateDescription(id, request.description());
+            @Valid @RequestBody UpdateDescriptionRequest request,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long version = expectedVersion(id, ifMatch);
+        if (version == null) {
+            service.updateDescription(id, request.description());
+        } else {
+            service.updateDescription(id, request.description(), version);
+        }
         return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteTask(@PathVariable Long id) {
-        service.delete(id);
+    public ResponseEntity<Object> deleteTask(@PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long version = expectedVersion(id, ifMatch);
+        if (version == null) {
+            service.delete(id);
+        } else {
+            service.delete(id, version);
+        }
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping
+    public ResponseEntity<List<TaskBatchResult>> deleteTasks(
+            @Valid @RequestBody TaskIdsRequest request) {
+        Set<Long> deleted = service.deleteAll(request.ids());
+        return ResponseEntity.ok(TaskBatchResult.map(request.ids(), deleted));
+    }
+
+    private List<Task> findAllOrByStatus(TaskStatus status) {
+        return status == null ?
+                service.findAll() :
+                service.findByStatus(status);
+    }
+
+    private static ResponseEntity.BodyBuilder listResponse() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT);
+    }
+
+    /**
+     * Whether the JSON converter would answer {@code accept}: when it allows JSON and does
+     * not ask for CBOR anywhere, so that the cached bytes never bypass negotiation.
+     */
+    private static boolean acceptsCachedJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            List<MediaType> types = MediaType.parseMediaTypes(accept);
+            return types.stream().anyMatch(type -> type.includes(MediaType.APPLICATION_JSON))
+                    && types.stream().noneMatch(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR));
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    static String eTag(Task task) {
+        return String.valueOf(task.getVersion());
+    }
+
+    /**
+     * Reads the version out of an If-Match header. A missing header or {@code *} means the
+     * write is unconditional; anything that is not one of our strong ETags can never match.
+     */
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.length() > 1 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+            eTag = eTag.substring(1, eTag.length() - 1);
+        }
+        try {
+            return Long.valueOf(eTag);
+        } catch (NumberFormatException ex) {
+            throw new TaskVersionMismatchException(id);
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package ctambaoan.taskapi.controller;
+
+import ctambaoan.taskapi.config.TaskEventProperties;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.service.TaskEventFeed;
+import ctambaoan.taskapi.service.TaskEventFeed.Entry;
+import ctambaoan.taskapi.service.TaskEventFeed.Subscription;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams task changes as Server-Sent Events. Each event carries its feed id, so a
+ * reconnecting {@code EventSource} resumes after the last event it received. When that
+ * event is no longer buffered a {@value #RESET_EVENT} event is sent first: the client
+ * should reload the tasks it shows and keep listening.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/tasks/events")
+public class TaskEventController {
+
+    static final String RESET_EVENT = "reset";
+
+    private final TaskEventFeed feed;
+    private final TaskEventProperties properties;
+    private final ExecutorService streamExecutor;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) TaskStatus status) {
+
+        Subscription subscription = feed.subscribe(lastEventId, status);
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(ex -> subscription.cancel());
+        streamExecutor.execute(() -> send(subscription, emitter));
+        return emitter;
+    }
+
+    private void send(Subscription subscription, SseEmitter emitter) {
+        try {
+            // commits the response headers so the client sees the stream open right away
+            emitter.send(SseEmitter.event().comment("open"));
+            if (subscription.resetRequired()) {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(subscription.resumeId()))
+                        .name(RESET_EVENT)
+                        .data(subscription.resumeId()));
+            }
+            while (subscription.isOpen()) {
+                Entry entry = subscription.poll(properties.heartbeatInterval());
+                if (!subscription.isOpen()) {
+                    break;
+                }
+                if (entry == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(entry.id()))
+                            .data(entry.event(), MediaType.APPLICATION_JSON));
+                }
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException ex) {
+            // the client went away; the container completes the response
+            subscription.cancel();
+        } catch (InterruptedException ex) {
+            subscription.cancel();
+            emitter.complete();
+        }
+    }
+}
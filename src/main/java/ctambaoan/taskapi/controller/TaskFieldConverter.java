@@ -0,0 +1,17 @@
+package ctambaoan.taskapi.controller;
+
+import ctambaoan.taskapi.domain.TaskField;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds {@code fields=id,name} by the JSON property names.
+ */
+@Component
+class TaskFieldConverter implements Converter<String, TaskField> {
+
+    @Override
+    public TaskField convert(String source) {
+        return TaskField.ofProperty(source.trim());
+    }
+}
@@ -0,0 +1,122 @@
+package ctambaoan.taskapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ctambaoan.taskapi.config.TaskListCacheProperties;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskEvent;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.dto.TaskResponse;
+import ctambaoan.taskapi.service.TaskService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+/**
+ * The JSON bodies of {@code GET /api/tasks}, with and without {@code status}, serialized
+ * and gzipped once and then served as bytes until a task changes. Any committed
+ * {@link TaskEvent} drops every body: an event does not say which status a task left, so
+ * every list may have changed.
+ *
+ * <p>A miss is loaded once: concurrent requests for the same list wait for the request
+ * that is already building it. A body built from data read before a change commits is
+ * handed to the requests that waited for it but not kept, and so is a body larger than
+ * {@link TaskListCacheProperties#maxBodySize()}.
+ */
+@Component
+public class TaskListResponseCache {
+
+    private final TaskService service;
+    private final ObjectMapper objectMapper;
+    private final Map<Key, CompletableFuture<Body>> bodies = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final long maxBodySize;
+
+    public TaskListResponseCache(TaskService service, ObjectMapper objectMapper,
+            TaskListCacheProperties properties) {
+        this.service = service;
+        this.objectMapper = objectMapper;
+        this.maxBodySize = properties.maxBodySize().toBytes();
+    }
+
+    /**
+     * Returns the body listing the tasks with {@code status}, or all tasks when it is null.
+     */
+    public Body get(TaskStatus status) {
+        Key key = new Key(status);
+        long loadedGeneration = generation.get();
+        CompletableFuture<Body> loading = new CompletableFuture<>();
+        CompletableFuture<Body> existing = bodies.putIfAbsent(key, loading);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            Body body = load(status);
+            loading.complete(body);
+            if (generation.get() != loadedGeneration || body.json().length > maxBodySize) {
+                bodies.remove(key, loading);
+            }
+            return body;
+        } catch (RuntimeException ex) {
+            bodies.remove(key, loading);
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(TaskEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        bodies.clear();
+    }
+
+    private Body load(TaskStatus status) {
+        List<Task> tasks = status == null ?
+                service.findAll() :
+                service.findByStatus(status);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(tasks.stream()
+                    .map(TaskResponse::map)
+                    .toList());
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(json);
+            }
+            return new Body(json, gzipped.toByteArray(), "W/\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Body join(CompletableFuture<Body> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    private record Key(TaskStatus status) {
+    }
+
+    /**
+     * @param json    the serialized list
+     * @param gzipped the same bytes gzipped, for clients that accept gzip
+     * @param eTag    a weak ETag derived from the list, shared by both encodings
+     */
+    public record Body(byte[] json, byte[] gzipped, String eTag) {
+    }
+}
@@ -0,0 +1,39 @@
+package ctambaoan.taskapi.domain;
+
+import java.time.LocalDateTime;
+import lombok.Getter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A finished task moved out of the {@code task} table by the archiver. Archived tasks
+ * are read-only.
+ */
+@Getter
+@Table("task_archive")
+public class ArchivedTask {
+
+    @Id
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final TaskStatus status;
+    private final LocalDateTime created;
+    private final LocalDateTime updated;
+    private final Long version;
+    private final LocalDateTime archived;
+
+    @PersistenceCreator
+    public ArchivedTask(Long id, String name, String description, TaskStatus status,
+            LocalDateTime created, LocalDateTime updated, Long version, LocalDateTime archived) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.status = status;
+        this.created = created;
+        this.updated = updated;
+        this.version = version;
+        this.archived = archived;
+    }
+}
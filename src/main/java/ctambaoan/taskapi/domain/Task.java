@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import lombok.Getter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.annotation.Version;
 
 @Getter
 public class Task {
@@ -14,6 +16,17 @@ public class Task {
     private String description;
     private TaskStatus status;
     private final LocalDateTime created;
+    private LocalDateTime updated;
+    private String claimedBy;
+    private LocalDateTime leaseExpires;
+    @Version
+    private Long version;
+    /**
+     * Position of the task's last change in commit order, assigned by the storage engine
+     * when it stores the change; null until then.
+     */
+    @ReadOnlyProperty
+    private Long changeNumber;
 
     public Task(String name, String description) {
         if (name == null || name.isBlank()) {
@@ -27,25 +40,58 @@ public class Task {
         this.description = description;
         this.status = TaskStatus.TODO;
         this.created = LocalDateTime.now();
+        this.updated = created;
     }
 
+    /**
+     * Recreates a stored task as it was persisted; used by storage engines.
+     */
     @PersistenceCreator
-    Task(Long id, String name, String description, TaskStatus status, LocalDateTime created) {
+    public Task(Long id, String name, String description, TaskStatus status, LocalDateTime created,
+            LocalDateTime updated, String claimedBy, LocalDateTime leaseExpires, Long version,
+            Long changeNumber) {
         this.id = id;
         this.name = name;
         this.description = description;
         this.status = status;
         this.created = created;
+        this.updated = updated;
+        this.claimedBy = claimedBy;
+        this.leaseExpires = leaseExpires;
+        this.version = version;
+        this.changeNumber = changeNumber;
+    }
+
+    /**
+     * Gives a new task an id reserved ahead of its insert.
+     */
+    public void assignId(Long id) {
+        if (this.id != null) {
+            throw new IllegalStateException("Task already has an id");
+        }
+        this.id = id;
     }
 
     public void markAsDone() {
         status = TaskStatus.DONE;
+        claimedBy = null;
+        leaseExpires = null;
+        updated = LocalDateTime.now();
     }
 
     public void updateDescription(String description) {
+        validateDescription(description);
+        this.description = description;
+        updated = LocalDateTime.now();
+    }
+
+    /**
+     * Applies the description rule without loading a task, for writes that go straight
+     * to the database.
+     */
+    public static void validateDescription(String description) {
         if (description == null || description.isBlank()) {
             throw new IllegalArgumentException("Description cannot be blank");
         }
-        this.description = description;
     }
 }
\ No newline at end of file
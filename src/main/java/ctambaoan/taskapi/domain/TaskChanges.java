@@ -0,0 +1,15 @@
+package ctambaoan.taskapi.domain;
+
+import java.util.List;
+
+/**
+ * One page of tasks created or modified and ids of tasks deleted, in commit order. While
+ * {@code after} is set there may be more: the next page starts after change
+ * {@code watermark} of task {@code after}. Once it is null, {@code watermark} is the
+ * change to ask from next time.
+ */
+public record TaskChanges(List<Task> changed,
+                          List<Long> deleted,
+                          long watermark,
+                          Long after) {
+}
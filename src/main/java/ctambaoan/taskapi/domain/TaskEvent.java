@@ -0,0 +1,50 @@
+package ctambaoan.taskapi.domain;
+
+/**
+ * A committed change to a task, published by the service layer. Only the fields the change
+ * touched are set: {@code name} for creations, {@code description} for creations and
+ * description updates, and {@code status} whenever the change implies one.
+ */
+public record TaskEvent(Type type,
+                        Long taskId,
+                        String name,
+                        String description,
+                        TaskStatus status) {
+
+    public enum Type {
+        CREATED, COMPLETED, DESCRIPTION_UPDATED, DELETED, ARCHIVED, CLAIMED, LEASE_RENEWED, LEASE_EXPIRED
+    }
+
+    public static TaskEvent created(Task task) {
+        return new TaskEvent(Type.CREATED, task.getId(), task.getName(), task.getDescription(),
+                task.getStatus());
+    }
+
+    public static TaskEvent completed(Long id) {
+        return new TaskEvent(Type.COMPLETED, id, null, null, TaskStatus.DONE);
+    }
+
+    public static TaskEvent descriptionUpdated(Long id, String description) {
+        return new TaskEvent(Type.DESCRIPTION_UPDATED, id, null, description, null);
+    }
+
+    public static TaskEvent deleted(Long id) {
+        return new TaskEvent(Type.DELETED, id, null, null, null);
+    }
+
+    public static TaskEvent archived(Long id) {
+        return new TaskEvent(Type.ARCHIVED, id, null, null, null);
+    }
+
+    public static TaskEvent claimed(Long id) {
+        return new TaskEvent(Type.CLAIMED, id, null, null, TaskStatus.IN_PROGRESS);
+    }
+
+    public static TaskEvent leaseRenewed(Long id) {
+        return new TaskEvent(Type.LEASE_RENEWED, id, null, null, TaskStatus.IN_PROGRESS);
+    }
+
+    public static TaskEvent leaseExpired(Long id) {
+        return new TaskEvent(Type.LEASE_EXPIRED, id, null, null, TaskStatus.TODO);
+    }
+}
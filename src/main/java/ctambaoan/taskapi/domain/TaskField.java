@@ -0,0 +1,43 @@
+package ctambaoan.taskapi.domain;
+
+/**
+ * A task field that can be requested on its own, with its column and JSON property.
+ */
+public enum TaskField {
+    ID("id", "id"),
+    NAME("name", "name"),
+    DESCRIPTION("description", "description"),
+    STATUS("status", "status"),
+    CREATED("created", "created"),
+    UPDATED("updated", "updated"),
+    CLAIMED_BY("claimed_by", "claimedBy"),
+    LEASE_EXPIRES("lease_expires", "leaseExpires");
+
+    private final String column;
+    private final String property;
+
+    TaskField(String column, String property) {
+        this.column = column;
+        this.property = property;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Looks a field up by its JSON property, ignoring case.
+     */
+    public static TaskField ofProperty(String property) {
+        for (TaskField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task field: " + property);
+    }
+}
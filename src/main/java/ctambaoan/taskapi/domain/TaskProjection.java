@@ -0,0 +1,34 @@
+package ctambaoan.taskapi.domain;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * The requested {@code fields} of a task, read without the others. Fields that were not
+ * requested are null, as are nullable ones that were. The version is always read, for
+ * conditional requests.
+ */
+public record TaskProjection(Set<TaskField> fields,
+                             Long id,
+                             String name,
+                             String description,
+                             TaskStatus status,
+                             LocalDateTime created,
+                             LocalDateTime updated,
+                             String claimedBy,
+                             LocalDateTime leaseExpires,
+                             Long version) {
+
+    public static TaskProjection of(Task task, Set<TaskField> fields) {
+        return new TaskProjection(fields,
+                fields.contains(TaskField.ID) ? task.getId() : null,
+                fields.contains(TaskField.NAME) ? task.getName() : null,
+                fields.contains(TaskField.DESCRIPTION) ? task.getDescription() : null,
+                fields.contains(TaskField.STATUS) ? task.getStatus() : null,
+                fields.contains(TaskField.CREATED) ? task.getCreated() : null,
+                fields.contains(TaskField.UPDATED) ? task.getUpdated() : null,
+                fields.contains(TaskField.CLAIMED_BY) ? task.getClaimedBy() : null,
+                fields.contains(TaskField.LEASE_EXPIRES) ? task.getLeaseExpires() : null,
+                task.getVersion());
+    }
+}
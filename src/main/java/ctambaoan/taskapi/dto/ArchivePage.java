@@ -0,0 +1,18 @@
+package ctambaoan.taskapi.dto;
+
+import ctambaoan.taskapi.domain.ArchivedTask;
+import java.util.List;
+
+public record ArchivePage(List<ArchivedTaskResponse> tasks,
+                          Long nextCursor) {
+
+    /**
+     * Same cursor rule as {@link TaskPage#map}.
+     */
+    public static ArchivePage map(List<ArchivedTask> tasks, int limit) {
+        Long nextCursor = tasks.size() < limit ? null : tasks.getLast().getId();
+        return new ArchivePage(tasks.stream()
+                .map(ArchivedTaskResponse::map)
+                .toList(), nextCursor);
+    }
+}
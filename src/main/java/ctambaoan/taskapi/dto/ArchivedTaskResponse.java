@@ -0,0 +1,25 @@
+package ctambaoan.taskapi.dto;
+
+import ctambaoan.taskapi.domain.ArchivedTask;
+import ctambaoan.taskapi.domain.TaskStatus;
+import java.time.LocalDateTime;
+
+public record ArchivedTaskResponse(Long id,
+                                   String name,
+                                   String description,
+                                   TaskStatus status,
+                                   LocalDateTime created,
+                                   LocalDateTime updated,
+                                   LocalDateTime archived) {
+
+    public static ArchivedTaskResponse map(ArchivedTask task) {
+        return new ArchivedTaskResponse(
+                task.getId(),
+                task.getName(),
+                task.getDescription(),
+                task.getStatus(),
+                task.getCreated(),
+                task.getUpdated(),
+                task.getArchived());
+    }
+}
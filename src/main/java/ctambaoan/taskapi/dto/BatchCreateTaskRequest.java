@@ -0,0 +1,12 @@
+package ctambaoan.taskapi.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BatchCreateTaskRequest(
+        @NotEmpty(message = "At least one task is required")
+        @Size(max = TaskIdsRequest.MAX_BATCH_SIZE, message = "Batch should not exceed 10000 tasks")
+        List<@Valid CreateTaskRequest> tasks) {
+}
@@ -0,0 +1,11 @@
+package ctambaoan.taskapi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record LeaseRequest(
+        @NotBlank(message = "Claimant is required")
+        @Size(max = 100, message = "Claimant cannot exceed 100 characters")
+        String claimant) {
+
+}
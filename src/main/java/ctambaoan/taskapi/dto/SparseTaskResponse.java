@@ -0,0 +1,58 @@
+package ctambaoan.taskapi.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import ctambaoan.taskapi.domain.TaskField;
+import ctambaoan.taskapi.domain.TaskProjection;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * A {@link TaskResponse} with only the requested fields. Requested fields are written
+ * even when null, so {@code "description": null} still tells the client there is none.
+ */
+@JsonSerialize(using = SparseTaskResponse.Serializer.class)
+public record SparseTaskResponse(TaskProjection task, TimestampFormat timestamps) {
+
+    public static SparseTaskResponse map(TaskProjection task, TimestampFormat timestamps) {
+        return new SparseTaskResponse(task, timestamps);
+    }
+
+    static class Serializer extends JsonSerializer<SparseTaskResponse> {
+
+        @Override
+        public void serialize(SparseTaskResponse response, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+
+            TaskProjection task = response.task();
+            gen.writeStartObject();
+            for (TaskField field : task.fields()) {
+                gen.writeFieldName(field.property());
+                switch (field) {
+                    case ID -> gen.writeNumber(task.id());
+                    case NAME -> gen.writeString(task.name());
+                    case DESCRIPTION -> gen.writeString(task.description());
+                    case STATUS -> gen.writeString(task.status().name());
+                    case CREATED -> writeTime(gen, provider, task.created(), response.timestamps());
+                    case UPDATED -> writeTime(gen, provider, task.updated(), response.timestamps());
+                    case CLAIMED_BY -> gen.writeString(task.claimedBy());
+                    case LEASE_EXPIRES -> writeTime(gen, provider, task.leaseExpires(), response.timestamps());
+                }
+            }
+            gen.writeEndObject();
+        }
+
+        private static void writeTime(JsonGenerator gen, SerializerProvider provider, LocalDateTime time,
+                TimestampFormat timestamps) throws IOException {
+            if (time == null) {
+                gen.writeNull();
+            } else if (timestamps == TimestampFormat.EPOCH) {
+                gen.writeNumber(TaskEpochResponse.epochMillis(time));
+            } else {
+                provider.defaultSerializeValue(time, gen);
+            }
+        }
+    }
+}
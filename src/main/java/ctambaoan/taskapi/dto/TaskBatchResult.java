@@ -0,0 +1,21 @@
+package ctambaoan.taskapi.dto;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Outcome of one item of a bulk request, using the status code the equivalent
+ * single-task endpoint would have returned.
+ */
+public record TaskBatchResult(Long id,
+                              int status) {
+
+    public static List<TaskBatchResult> map(List<Long> requested, Collection<Long> applied) {
+        return requested.stream()
+                .map(id -> new TaskBatchResult(id, applied.contains(id) ?
+                        HttpStatus.NO_CONTENT.value() :
+                        HttpStatus.NOT_FOUND.value()))
+                .toList();
+    }
+}
@@ -0,0 +1,16 @@
+package ctambaoan.taskapi.dto;
+
+import ctambaoan.taskapi.domain.TaskChanges;
+import java.util.List;
+
+public record TaskChangesResponse(List<TaskResponse> changed,
+                                  List<Long> deleted,
+                                  long watermark,
+                                  Long after) {
+
+    public static TaskChangesResponse map(TaskChanges changes) {
+        return new TaskChangesResponse(changes.changed().stream()
+                .map(TaskResponse::map)
+                .toList(), changes.deleted(), changes.watermark(), changes.after());
+    }
+}
@@ -0,0 +1,44 @@
+package ctambaoan.taskapi.dto;
+
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import java.util.List;
+
+/**
+ * Column-oriented list of tasks: one array per field, all of the same length, so field
+ * names are written once per response instead of once per task. Timestamps are epoch
+ * milliseconds; the lease columns hold {@code null} for tasks no worker holds.
+ */
+public record TaskColumns(int count,
+                          long[] id,
+                          String[] name,
+                          String[] description,
+                          TaskStatus[] status,
+                          long[] created,
+                          long[] updated,
+                          String[] claimedBy,
+                          Long[] leaseExpires) {
+
+    public static final String MEDIA_TYPE = "application/vnd.task-api.columnar+json";
+
+    public static TaskColumns map(List<Task> tasks) {
+        int count = tasks.size();
+        TaskColumns columns = new TaskColumns(count, new long[count], new String[count],
+                new String[count], new TaskStatus[count], new long[count], new long[count],
+                new String[count], new Long[count]);
+        for (int i = 0; i < count; i++) {
+            Task task = tasks.get(i);
+            columns.id[i] = task.getId();
+            columns.name[i] = task.getName();
+            columns.description[i] = task.getDescription();
+            columns.status[i] = task.getStatus();
+            columns.created[i] = TaskEpochResponse.epochMillis(task.getCreated());
+            columns.updated[i] = TaskEpochResponse.epochMillis(task.getUpdated());
+            columns.claimedBy[i] = task.getClaimedBy();
+            if (task.getLeaseExpires() != null) {
+                columns.leaseExpires[i] = TaskEpochResponse.epochMillis(task.getLeaseExpires());
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,39 @@
+package ctambaoan.taskapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * {@link TaskResponse} with its timestamps as epoch milliseconds.
+ */
+public record TaskEpochResponse(Long id,
+                                String name,
+                                String description,
+                                TaskStatus status,
+                                long created,
+                                long updated,
+                                @JsonInclude(JsonInclude.Include.NON_NULL) String claimedBy,
+                                @JsonInclude(JsonInclude.Include.NON_NULL) Long leaseExpires) {
+
+    public static TaskEpochResponse map(Task task) {
+        return new TaskEpochResponse(
+                task.getId(),
+                task.getName(),
+                task.getDescription(),
+                task.getStatus(),
+                epochMillis(task.getCreated()),
+                epochMillis(task.getUpdated()),
+                task.getClaimedBy(),
+                task.getLeaseExpires() == null ? null : epochMillis(task.getLeaseExpires()));
+    }
+
+    /**
+     * Task timestamps are local date-times in the server's zone.
+     */
+    static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
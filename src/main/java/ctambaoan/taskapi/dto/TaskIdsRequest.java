@@ -0,0 +1,14 @@
+package ctambaoan.taskapi.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record TaskIdsRequest(
+        @NotEmpty(message = "At least one task id is required")
+        @Size(max = TaskIdsRequest.MAX_BATCH_SIZE, message = "Batch should not exceed 10000 tasks")
+        List<@NotNull(message = "Task id is required") Long> ids) {
+
+    public static final int MAX_BATCH_SIZE = 10_000;
+}
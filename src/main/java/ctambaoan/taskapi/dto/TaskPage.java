@@ -0,0 +1,19 @@
+package ctambaoan.taskapi.dto;
+
+import ctambaoan.taskapi.domain.Task;
+import java.util.List;
+
+public record TaskPage(List<TaskResponse> tasks,
+                       Long nextCursor) {
+
+    /**
+     * A full page means there may be more rows, so the last id becomes the cursor for
+     * the next request. A short page is the end of the result set.
+     */
+    public static TaskPage map(List<Task> tasks, int limit) {
+        Long nextCursor = tasks.size() < limit ? null : tasks.getLast().getId();
+        return new TaskPage(tasks.stream()
+                .map(TaskResponse::map)
+                .toList(), nextCursor);
+    }
+}
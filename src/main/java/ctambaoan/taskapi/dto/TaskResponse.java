@@ -1,14 +1,21 @@
 package ctambaoan.taskapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import ctambaoan.taskapi.domain.Task;
 import ctambaoan.taskapi.domain.TaskStatus;
 import java.time.LocalDateTime;
 
+/**
+ * The lease fields only appear while a worker holds the task.
+ */
 public record TaskResponse(Long id,
                            String name,
                            String description,
                            TaskStatus status,
-                           LocalDateTime created) {
+                           LocalDateTime created,
+                           LocalDateTime updated,
+                           @JsonInclude(JsonInclude.Include.NON_NULL) String claimedBy,
+                           @JsonInclude(JsonInclude.Include.NON_NULL) LocalDateTime leaseExpires) {
 
     public static TaskResponse map(Task task) {
         return new TaskResponse(
@@ -16,6 +23,9 @@ public record TaskResponse(Long id,
                 task.getName(),
                 task.getDescription(),
                 task.getStatus(),
-                task.getCreated());
+                task.getCreated(),
+                task.getUpdated(),
+                task.getClaimedBy(),
+                task.getLeaseExpires());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package ctambaoan.taskapi.dto;
+
+/**
+ * How list responses write {@code created} and {@code updated}: ISO-8601 local date-times,
+ * or milliseconds since the epoch, which are shorter and cheaper to produce and parse.
+ */
+public enum TimestampFormat {
+    ISO, EPOCH
+}
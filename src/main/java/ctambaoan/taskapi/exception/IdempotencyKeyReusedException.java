@@ -0,0 +1,8 @@
+package ctambaoan.taskapi.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency key " + key + " was already used with a different request");
+    }
+}
@@ -0,0 +1,15 @@
+package ctambaoan.taskapi.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(Duration retryAfter) {
+        super("Too many requests, please retry later");
+        this.retryAfter = retryAfter;
+    }
+}
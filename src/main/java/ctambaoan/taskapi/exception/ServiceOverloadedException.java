@@ -0,0 +1,8 @@
+package ctambaoan.taskapi.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException() {
+        super("The service is overloaded, please retry");
+    }
+}
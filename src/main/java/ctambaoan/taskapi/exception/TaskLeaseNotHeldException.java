@@ -0,0 +1,8 @@
+package ctambaoan.taskapi.exception;
+
+public class TaskLeaseNotHeldException extends RuntimeException {
+
+    public TaskLeaseNotHeldException(Long id, String claimant) {
+        super("Task with ID: %d is not leased to %s".formatted(id, claimant));
+    }
+}
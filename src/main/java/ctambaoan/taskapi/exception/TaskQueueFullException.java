@@ -0,0 +1,8 @@
+package ctambaoan.taskapi.exception;
+
+public class TaskQueueFullException extends RuntimeException {
+
+    public TaskQueueFullException() {
+        super("Task creation is temporarily saturated, please retry");
+    }
+}
@@ -0,0 +1,21 @@
+package ctambaoan.taskapi.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+@Getter
+public class TaskRequestTimeoutException extends RuntimeException {
+
+    private final Duration timeout;
+    /**
+     * Whether the work had started, and may still take effect, when the request ran out of
+     * time.
+     */
+    private final boolean started;
+
+    public TaskRequestTimeoutException(Duration timeout, boolean started) {
+        super("The request did not complete within " + timeout.toMillis() + " ms");
+        this.timeout = timeout;
+        this.started = started;
+    }
+}
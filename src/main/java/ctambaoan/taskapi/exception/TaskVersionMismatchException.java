@@ -0,0 +1,8 @@
+package ctambaoan.taskapi.exception;
+
+public class TaskVersionMismatchException extends RuntimeException {
+
+    public TaskVersionMismatchException(Long id) {
+        super("Task with ID: %d does not match the expected version".formatted(id));
+    }
+}
@@ -0,0 +1,26 @@
+package ctambaoan.taskapi.repository;
+
+import ctambaoan.taskapi.domain.ArchivedTask;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.Repository;
+
+public interface ArchivedTaskRepository extends Repository<ArchivedTask, Long> {
+
+    @Query("SELECT * FROM task_archive WHERE id > :after ORDER BY id LIMIT :limit")
+    List<ArchivedTask> findPage(long after, int limit);
+
+    /**
+     * Deletes at most {@code limit} tasks archived before {@code archivedBefore}, so that a
+     * purge never holds locks on more rows than one batch.
+     */
+    @Modifying
+    @Query("DELETE FROM task_archive WHERE archived < :archivedBefore LIMIT :limit")
+    int purge(LocalDateTime archivedBefore, int limit);
+
+    @Modifying
+    @Query("DELETE FROM task_tombstone WHERE deleted < :deletedBefore LIMIT :limit")
+    int purgeTombstones(LocalDateTime deletedBefore, int limit);
+}
@@ -0,0 +1,18 @@
+package ctambaoan.taskapi.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Picks the finished tasks to move to the archive. The returned rows stay locked until the
+ * surrounding transaction ends, so it must run in one.
+ */
+public interface TaskArchivingRepository {
+
+    /**
+     * Locks up to {@code limit} finished tasks last written before {@code cutoff}, so that
+     * they cannot change while they are copied to the archive. Tasks that a concurrent run
+     * has locked are skipped rather than waited for.
+     */
+    List<Long> lockArchivable(LocalDateTime cutoff, int limit);
+}
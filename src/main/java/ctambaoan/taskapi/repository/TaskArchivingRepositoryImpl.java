@@ -0,0 +1,36 @@
+package ctambaoan.taskapi.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+/**
+ * H2 locks every row matching a {@code FOR UPDATE} query before it sorts and limits them,
+ * which would lock every finished task. So the window of candidates is read without locks
+ * first, and only those still archivable are then locked by id, as in
+ * {@link TaskLeaseRepositoryImpl}.
+ */
+@RequiredArgsConstructor
+class TaskArchivingRepositoryImpl implements TaskArchivingRepository {
+
+    private final NamedParameterJdbcOperations jdbc;
+
+    @Override
+    public List<Long> lockArchivable(LocalDateTime cutoff, int limit) {
+        List<Long> window = jdbc.queryForList("""
+                SELECT id FROM task
+                WHERE status IN ('DONE', 'CANCELLED') AND updated < :cutoff
+                ORDER BY id LIMIT :limit
+                """, Map.of("cutoff", cutoff, "limit", limit), Long.class);
+        if (window.isEmpty()) {
+            return List.of();
+        }
+        return jdbc.queryForList("""
+                SELECT id FROM task
+                WHERE id IN (:ids) AND status IN ('DONE', 'CANCELLED') AND updated < :cutoff
+                FOR UPDATE SKIP LOCKED
+                """, Map.of("ids", window, "cutoff", cutoff), Long.class);
+    }
+}
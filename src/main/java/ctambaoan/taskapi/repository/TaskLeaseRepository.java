@@ -0,0 +1,26 @@
+package ctambaoan.taskapi.repository;
+
+import ctambaoan.taskapi.domain.Task;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The work-queue side of the task table: {@code TODO} tasks are claimed by workers under a
+ * lease, and handed back when the lease runs out. Both operations lock and change their
+ * rows in one go, so they must run in a transaction.
+ */
+public interface TaskLeaseRepository {
+
+    /**
+     * Moves up to {@code max} of the oldest {@code TODO} tasks to {@code IN_PROGRESS},
+     * leased to {@code claimant} until {@code leaseExpires}, and returns them oldest first.
+     * Tasks that a concurrent claim has locked are skipped rather than waited for.
+     */
+    List<Task> claim(String claimant, LocalDateTime leaseExpires, int max);
+
+    /**
+     * Returns up to {@code limit} {@code IN_PROGRESS} tasks whose lease expired before
+     * {@code now} to {@code TODO}, and returns their ids.
+     */
+    List<Long> releaseExpiredLeases(LocalDateTime now, int limit);
+}
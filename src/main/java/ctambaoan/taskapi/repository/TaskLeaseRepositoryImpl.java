@@ -0,0 +1,110 @@
+package ctambaoan.taskapi.repository;
+
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jdbc.core.JdbcAggregateOperations;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+/**
+ * Locks the rows to change with {@code FOR UPDATE SKIP LOCKED}: concurrent claims each lock
+ * a disjoint set of rows instead of queueing behind the first one, and a row locked by a
+ * claim is not reaped under it.
+ *
+ * <p>H2 locks every row matching a {@code FOR UPDATE} query before it sorts and limits
+ * them, which would lock the whole queue. So a claim first reads a window of the oldest
+ * candidates without locks, and then locks by id those that are still {@code TODO} and not
+ * locked by another claim. If others took some of them, it moves on to the next window
+ * until it has enough or the queue is empty. The window is ordered by the full
+ * {@code (status, created, id)} index, leading status included, so H2 reads it in index
+ * order instead of sorting every {@code TODO} row.
+ */
+@RequiredArgsConstructor
+class TaskLeaseRepositoryImpl implements TaskLeaseRepository {
+
+    private final NamedParameterJdbcOperations jdbc;
+    private final JdbcAggregateOperations aggregates;
+
+    @Override
+    public List<Task> claim(String claimant, LocalDateTime leaseExpires, int max) {
+        List<Long> ids = new ArrayList<>();
+        int requested = max;
+        List<Candidate> window = oldestTodo(null, requested);
+        while (!window.isEmpty()) {
+            ids.addAll(jdbc.queryForList("""
+                    SELECT id FROM task WHERE id IN (:ids) AND status = 'TODO'
+                    FOR UPDATE SKIP LOCKED
+                    """, Map.of("ids", window.stream().map(Candidate::id).toList()), Long.class));
+            int missing = max - ids.size();
+            if (missing == 0 || window.size() < requested) {
+                break;
+            }
+            requested = missing;
+            window = oldestTodo(window.getLast(), requested);
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        jdbc.update("""
+                UPDATE task
+                SET status = 'IN_PROGRESS', claimed_by = :claimant, lease_expires = :leaseExpires,
+                    updated = LOCALTIMESTAMP, version = version + 1, change_number = DEFAULT
+                WHERE id IN (:ids) AND status = 'TODO'
+                """, Map.of("claimant", claimant, "leaseExpires", leaseExpires, "ids", ids));
+        return aggregates.findAllById(ids, Task.class).stream()
+                .filter(task -> task.getStatus() == TaskStatus.IN_PROGRESS
+                        && claimant.equals(task.getClaimedBy()))
+                .sorted(Comparator.comparing(Task::getCreated).thenComparing(Task::getId))
+                .toList();
+    }
+
+    private List<Candidate> oldestTodo(Candidate after, int limit) {
+        RowMapper<Candidate> mapper = (rs, row) ->
+                new Candidate(rs.getLong("id"), rs.getObject("created", LocalDateTime.class));
+        if (after == null) {
+            return jdbc.query("""
+                    SELECT id, created FROM task WHERE status = 'TODO'
+                    ORDER BY status, created, id LIMIT :limit
+                    """, Map.of("limit", limit), mapper);
+        }
+        return jdbc.query("""
+                SELECT id, created FROM task
+                WHERE status = 'TODO' AND (created > :created OR created = :created AND id > :id)
+                ORDER BY status, created, id LIMIT :limit
+                """, Map.of("created", after.created(), "id", after.id(), "limit", limit), mapper);
+    }
+
+    @Override
+    public List<Long> releaseExpiredLeases(LocalDateTime now, int limit) {
+        List<Long> expired = jdbc.queryForList("""
+                SELECT id FROM task WHERE status = 'IN_PROGRESS' AND lease_expires < :now
+                ORDER BY lease_expires LIMIT :limit
+                """, Map.of("now", now, "limit", limit), Long.class);
+        if (expired.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = jdbc.queryForList("""
+                SELECT id FROM task WHERE id IN (:ids) AND status = 'IN_PROGRESS' AND lease_expires < :now
+                FOR UPDATE SKIP LOCKED
+                """, Map.of("ids", expired, "now", now), Long.class);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        jdbc.update("""
+                UPDATE task
+                SET status = 'TODO', claimed_by = NULL, lease_expires = NULL,
+                    updated = LOCALTIMESTAMP, version = version + 1, change_number = DEFAULT
+                WHERE id IN (:ids)
+                """, Map.of("ids", ids));
+        return ids;
+    }
+
+    private record Candidate(long id, LocalDateTime created) {
+    }
+}
@@ -0,0 +1,22 @@
+package ctambaoan.taskapi.repository;
+
+import ctambaoan.taskapi.domain.TaskField;
+import ctambaoan.taskapi.domain.TaskProjection;
+import ctambaoan.taskapi.domain.TaskStatus;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reads that select only the requested columns, so that large descriptions are not read
+ * when nobody asked for them.
+ */
+public interface TaskProjectionRepository {
+
+    /**
+     * Tasks in id order, all of them or those in {@code status} when it is not null.
+     */
+    List<TaskProjection> findProjected(TaskStatus status, Set<TaskField> fields);
+
+    Optional<TaskProjection> findProjectedById(long id, Set<TaskField> fields);
+}
@@ -0,0 +1,65 @@
+package ctambaoan.taskapi.repository;
+
+import ctambaoan.taskapi.domain.TaskField;
+import ctambaoan.taskapi.domain.TaskProjection;
+import ctambaoan.taskapi.domain.TaskStatus;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+/**
+ * Builds the select list from {@link TaskField} columns, so only known column names ever
+ * reach the SQL.
+ */
+@RequiredArgsConstructor
+class TaskProjectionRepositoryImpl implements TaskProjectionRepository {
+
+    private final NamedParameterJdbcOperations jdbc;
+
+    @Override
+    public List<TaskProjection> findProjected(TaskStatus status, Set<TaskField> fields) {
+        return status == null ?
+                jdbc.query(select(fields) + " ORDER BY id", mapper(fields)) :
+                jdbc.query(select(fields) + " WHERE status = :status ORDER BY id",
+                        Map.of("status", status.name()), mapper(fields));
+    }
+
+    @Override
+    public Optional<TaskProjection> findProjectedById(long id, Set<TaskField> fields) {
+        return jdbc.query(select(fields) + " WHERE id = :id", Map.of("id", id), mapper(fields))
+                .stream()
+                .findFirst();
+    }
+
+    private static String select(Set<TaskField> fields) {
+        return fields.stream()
+                .map(TaskField::column)
+                .collect(Collectors.joining(", ", "SELECT ", ", version FROM task"));
+    }
+
+    private static RowMapper<TaskProjection> mapper(Set<TaskField> fields) {
+        return (rs, row) -> new TaskProjection(fields,
+                fields.contains(TaskField.ID) ? rs.getLong("id") : null,
+                fields.contains(TaskField.NAME) ? rs.getString("name") : null,
+                fields.contains(TaskField.DESCRIPTION) ? rs.getString("description") : null,
+                fields.contains(TaskField.STATUS) ? TaskStatus.valueOf(rs.getString("status")) : null,
+                timestamp(rs, fields, TaskField.CREATED),
+                timestamp(rs, fields, TaskField.UPDATED),
+                fields.contains(TaskField.CLAIMED_BY) ? rs.getString("claimed_by") : null,
+                timestamp(rs, fields, TaskField.LEASE_EXPIRES),
+                rs.getLong("version"));
+    }
+
+    private static LocalDateTime timestamp(ResultSet rs, Set<TaskField> fields, TaskField field)
+            throws SQLException {
+        return fields.contains(field) ? rs.getObject(field.column(), LocalDateTime.class) : null;
+    }
+}
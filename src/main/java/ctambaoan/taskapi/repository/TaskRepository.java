@@ -2,10 +2,187 @@ package ctambaoan.taskapi.repository;
 
 import ctambaoan.taskapi.domain.Task;
 import ctambaoan.taskapi.domain.TaskStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.ListCrudRepository;
 
-public interface TaskRepository extends ListCrudRepository<Task, Long> {
+public interface TaskRepository extends ListCrudRepository<Task, Long>, TaskProjectionRepository,
+        TaskLeaseRepository, TaskArchivingRepository {
 
     List<Task> findByStatus(TaskStatus status);
+
+    /**
+     * Reserves {@code count} ids from the sequence behind the id column in one round trip.
+     */
+    @Query("SELECT NEXT VALUE FOR task_id_seq FROM SYSTEM_RANGE(1, :count)")
+    List<Long> reserveIds(int count);
+
+    @Query("SELECT status, COUNT(*) AS total FROM task GROUP BY status")
+    List<TaskStatusCount> countByStatus();
+
+    @Query("SELECT * FROM task WHERE id > :after ORDER BY id LIMIT :limit")
+    List<Task> findPage(long after, int limit);
+
+    @Query("SELECT * FROM task WHERE status = :status AND id > :after ORDER BY id LIMIT :limit")
+    List<Task> findPageByStatus(TaskStatus status, long after, int limit);
+
+    /**
+     * Streams every task in id order straight off the JDBC cursor. The stream holds a
+     * connection until it is closed, so callers must use try-with-resources.
+     */
+    @Query("SELECT * FROM task ORDER BY id")
+    Stream<Task> streamAll();
+
+    @Query("SELECT * FROM task WHERE status = :status ORDER BY id")
+    Stream<Task> streamByStatus(TaskStatus status);
+
+    /**
+     * Takes the change counter for the calling transaction and returns the number it took.
+     * Rows written by the transaction afterwards get this number from the
+     * {@code change_number} column default, so every writing transaction has to call this
+     * first: the counter stays locked until it ends, and taking it after a row lock could
+     * deadlock with a transaction holding the counter and waiting for that row.
+     */
+    @Query("""
+            SELECT last_change FROM FINAL TABLE
+                (UPDATE task_change_counter SET last_change = last_change + 1)
+            """)
+    long nextChange();
+
+    /**
+     * The highest change number committed so far. Every change numbered up to it has
+     * committed, and every later change will get a higher number.
+     */
+    @Query("SELECT last_change FROM task_change_counter")
+    long lastChange();
+
+    /**
+     * Keyset page over tasks in {@code (changeNumber, id)} order, starting after
+     * {@code (since, after)} and ending at {@code upTo}.
+     */
+    @Query("""
+            SELECT * FROM task
+            WHERE change_number >= :since AND (change_number > :since OR id > :after)
+                AND change_number <= :upTo
+            ORDER BY change_number, id LIMIT :limit
+            """)
+    List<Task> findChangedSince(long since, long after, long upTo, int limit);
+
+    /**
+     * Same page as {@link #findChangedSince} over the tombstones of deleted tasks.
+     */
+    @Query("""
+            SELECT task_id, change_number FROM task_tombstone
+            WHERE change_number >= :since AND (change_number > :since OR task_id > :after)
+                AND change_number <= :upTo
+            ORDER BY change_number, task_id LIMIT :limit
+            """)
+    List<TaskTombstone> findDeletedSince(long since, long after, long upTo, int limit);
+
+    @Modifying
+    @Query("""
+            UPDATE task
+            SET status = :status, claimed_by = NULL, lease_expires = NULL,
+                updated = LOCALTIMESTAMP, version = version + 1,
+                change_number = DEFAULT
+            WHERE id = :id
+            """)
+    int updateStatus(Long id, TaskStatus status);
+
+    @Modifying
+    @Query("""
+            UPDATE task
+            SET status = :status, claimed_by = NULL, lease_expires = NULL,
+                updated = LOCALTIMESTAMP, version = version + 1,
+                change_number = DEFAULT
+            WHERE id = :id AND version = :version
+            """)
+    int updateStatus(Long id, TaskStatus status, long version);
+
+    @Modifying
+    @Query("""
+            UPDATE task
+            SET description = :description, updated = LOCALTIMESTAMP, version = version + 1,
+                change_number = DEFAULT
+            WHERE id = :id
+            """)
+    int updateDescription(Long id, String description);
+
+    @Modifying
+    @Query("""
+            UPDATE task
+            SET description = :description, updated = LOCALTIMESTAMP, version = version + 1,
+                change_number = DEFAULT
+            WHERE id = :id AND version = :version
+            """)
+    int updateDescription(Long id, String description, long version);
+
+    /**
+     * Extends the lease of a task {@code claimant} holds. The version is left alone, so a
+     * worker can still complete the task with the version it claimed, but {@code updated}
+     * and the change number move, so that change feeds report the renewal.
+     */
+    @Modifying
+    @Query("""
+            UPDATE task SET lease_expires = :leaseExpires, updated = LOCALTIMESTAMP,
+                change_number = DEFAULT
+            WHERE id = :id AND status = 'IN_PROGRESS' AND claimed_by = :claimant
+            """)
+    int renewLease(Long id, String claimant, LocalDateTime leaseExpires);
+
+    @Modifying
+    @Query("DELETE FROM task WHERE id = :id")
+    int removeById(Long id);
+
+    @Modifying
+    @Query("DELETE FROM task WHERE id = :id AND version = :version")
+    int removeById(Long id, long version);
+
+    /**
+     * Records that a task was deleted so that delta sync can report it.
+     */
+    @Modifying
+    @Query("INSERT INTO task_tombstone (task_id, deleted) VALUES (:id, LOCALTIMESTAMP)")
+    int addTombstone(Long id);
+
+    @Query("SELECT id FROM task WHERE id IN (:ids)")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+            UPDATE task
+            SET status = :status, claimed_by = NULL, lease_expires = NULL,
+                updated = LOCALTIMESTAMP, version = version + 1,
+                change_number = DEFAULT
+            WHERE id IN (:ids)
+            """)
+    int updateStatus(Collection<Long> ids, TaskStatus status);
+
+    @Modifying
+    @Query("DELETE FROM task WHERE id IN (:ids)")
+    int deleteByIdIn(Collection<Long> ids);
+
+    /**
+     * Records the deletion of those of {@code ids} that still exist, so it has to run
+     * before they are deleted.
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO task_tombstone (task_id, deleted)
+            SELECT id, LOCALTIMESTAMP FROM task WHERE id IN (:ids)
+            """)
+    int addTombstones(Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+            INSERT INTO task_archive
+                (id, name, description, status, created, updated, version, archived)
+            SELECT id, name, description, status, created, updated, version, LOCALTIMESTAMP
+            FROM task WHERE id IN (:ids)
+            """)
+    int copyToArchive(Collection<Long> ids);
 }
@@ -0,0 +1,7 @@
+package ctambaoan.taskapi.repository;
+
+import ctambaoan.taskapi.domain.TaskStatus;
+
+public record TaskStatusCount(TaskStatus status,
+                              long total) {
+}
@@ -0,0 +1,5 @@
+package ctambaoan.taskapi.repository;
+
+public record TaskTombstone(long taskId,
+                            long changeNumber) {
+}
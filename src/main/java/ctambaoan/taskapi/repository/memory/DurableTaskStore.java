@@ -0,0 +1,202 @@
+package ctambaoan.taskapi.repository.memory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Makes an {@link InMemoryTaskRepository} durable with a {@link TaskWriteAheadLog} and
+ * periodic snapshots, kept together in one directory. The log is split into numbered
+ * segments, {@code wal-<n>.log}. Taking a snapshot starts segment {@code n} and writes the
+ * state as of that moment to {@code snapshot-<n>.bin}, after which older snapshots and
+ * segments are deleted: the snapshot compacts the log. The directory is synced after every
+ * new segment and snapshot, before anything older is deleted. Recovery loads the latest
+ * snapshot and replays the segments from its number on.
+ *
+ * <p>Snapshots are written and read through memory-mapped files. Writers only wait while
+ * the log is rotated and the repository copies its task references under the read lock;
+ * the copy is serialized afterwards.
+ */
+@Slf4j
+public class DurableTaskStore {
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final InMemoryTaskRepository repository;
+    private final Path directory;
+    private final FsyncPolicy fsync;
+    private final Duration syncInterval;
+    private TaskWriteAheadLog journal;
+    private long segment;
+
+    public DurableTaskStore(InMemoryTaskRepository repository, Path directory, FsyncPolicy fsync,
+            Duration syncInterval) {
+        this.repository = repository;
+        this.directory = directory;
+        this.fsync = fsync;
+        this.syncInterval = syncInterval;
+    }
+
+    /**
+     * Loads the latest snapshot and replays the log after it, without logging new changes.
+     */
+    public synchronized void recover() {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            deleteTemporaryFiles();
+            List<Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+            long snapshot = 0;
+            if (!snapshots.isEmpty()) {
+                Path latest = snapshots.getLast();
+                snapshot = number(latest, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+                try (DataInputStream in = new DataInputStream(new MappedFileInputStream(latest))) {
+                    repository.readSnapshot(in);
+                }
+            }
+            segment = snapshot;
+            int records = 0;
+            TaskChangeLog replayer = repository.replayer();
+            for (Path file : list(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+                long number = number(file, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+                if (number >= snapshot) {
+                    records += TaskWriteAheadLog.replay(file, replayer);
+                    segment = number;
+                }
+            }
+            log.info("Recovered {} tasks from snapshot {} and {} log records in {} ms", repository.count(),
+                    snapshot, records, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not recover tasks from " + directory, ex);
+        }
+    }
+
+    /**
+     * Recovers, then logs every later change to a new segment.
+     */
+    public synchronized void open() {
+        recover();
+        try {
+            segment++;
+            journal = new TaskWriteAheadLog(segmentFile(segment), fsync, syncInterval);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open the write-ahead log in " + directory, ex);
+        }
+        repository.attach(journal);
+    }
+
+    /**
+     * Writes a snapshot and deletes the snapshots and log segments it replaces.
+     */
+    public synchronized void snapshot() {
+        long start = System.nanoTime();
+        long next = segment + 1;
+        Path temp = directory.resolve(SNAPSHOT_PREFIX + next + SNAPSHOT_SUFFIX + TEMP_SUFFIX);
+        try {
+            InMemoryTaskRepository.Snapshot state;
+            Lock lock = repository.snapshotLock();
+            lock.lock();
+            try {
+                journal.rotate(segmentFile(next));
+                segment = next;
+                state = repository.snapshot();
+            } finally {
+                lock.unlock();
+            }
+            try (DataOutputStream out = new DataOutputStream(new MappedFileOutputStream(temp))) {
+                state.writeTo(out);
+            }
+            Files.move(temp, snapshotFile(next), StandardCopyOption.ATOMIC_MOVE);
+            TaskWriteAheadLog.syncDirectory(directory);
+            deleteBefore(next);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write a task snapshot to " + directory, ex);
+        }
+        log.info("Wrote snapshot {} in {} ms", next, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Syncs and closes the log. Changes made afterwards fail.
+     */
+    public synchronized void close() {
+        try {
+            journal.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not close the write-ahead log in " + directory, ex);
+        }
+    }
+
+    /**
+     * Takes a final snapshot, so that the next start has no log to replay, and closes.
+     */
+    public synchronized void snapshotAndClose() {
+        snapshot();
+        close();
+    }
+
+    private void deleteBefore(long number) throws IOException {
+        for (Path file : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (number(file, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < number) {
+                Files.delete(file);
+            }
+        }
+        for (Path file : list(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (number(file, SEGMENT_PREFIX, SEGMENT_SUFFIX) < number) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Files named {@code <prefix><n><suffix>}, in order of {@code n}.
+     */
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(suffix);
+                    })
+                    .sorted(Comparator.comparingLong(file -> number(file, prefix, suffix)))
+                    .toList();
+        }
+    }
+
+    /**
+     * Removes snapshots that were being written when the process stopped.
+     */
+    private void deleteTemporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.toString().endsWith(TEMP_SUFFIX)).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static long number(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    private Path segmentFile(long number) {
+        return directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+    }
+
+    private Path snapshotFile(long number) {
+        return directory.resolve(SNAPSHOT_PREFIX + number + SNAPSHOT_SUFFIX);
+    }
+}
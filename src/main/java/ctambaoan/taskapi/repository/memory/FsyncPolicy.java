@@ -0,0 +1,25 @@
+package ctambaoan.taskapi.repository.memory;
+
+/**
+ * When the write-ahead log forces appended changes to disk.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Every write waits until its changes are synced. Writers that arrive while a sync is
+     * running share the next one, so a sync covers a whole group of commits.
+     */
+    ALWAYS,
+
+    /**
+     * Changes are written and synced every sync interval, and writes do not wait. A crash
+     * loses at most the last interval.
+     */
+    INTERVAL,
+
+    /**
+     * Changes are handed to the operating system every sync interval and never synced
+     * explicitly. They survive a process crash but not a power loss.
+     */
+    NEVER
+}
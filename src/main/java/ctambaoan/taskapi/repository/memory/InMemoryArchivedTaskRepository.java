@@ -0,0 +1,32 @@
+package ctambaoan.taskapi.repository.memory;
+
+import ctambaoan.taskapi.domain.ArchivedTask;
+import ctambaoan.taskapi.repository.ArchivedTaskRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The archive side of {@link InMemoryTaskRepository}, which holds archived tasks and
+ * tombstones alongside the live tasks.
+ */
+@RequiredArgsConstructor
+public class InMemoryArchivedTaskRepository implements ArchivedTaskRepository {
+
+    private final InMemoryTaskRepository tasks;
+
+    @Override
+    public List<ArchivedTask> findPage(long after, int limit) {
+        return tasks.findArchivePage(after, limit);
+    }
+
+    @Override
+    public int purge(LocalDateTime archivedBefore, int limit) {
+        return tasks.purgeArchive(archivedBefore, limit);
+    }
+
+    @Override
+    public int purgeTombstones(LocalDateTime deletedBefore, int limit) {
+        return tasks.purgeTombstones(deletedBefore, limit);
+    }
+}
@@ -0,0 +1,885 @@
+package ctambaoan.taskapi.repository.memory;
+
+import ctambaoan.taskapi.domain.ArchivedTask;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskField;
+import ctambaoan.taskapi.domain.TaskProjection;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.repository.TaskRepository;
+import ctambaoan.taskapi.repository.TaskStatusCount;
+import ctambaoan.taskapi.repository.TaskTombstone;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * {@link TaskRepository} that keeps every task in memory, for deployments that do not need
+ * a database. Tasks are held in a {@link LongTaskMap} keyed by primitive id, and the ids of
+ * all tasks and of the tasks in each status are kept in bitsets. Lookups, status filters
+ * and keyset pages therefore neither box ids nor allocate per lookup, and scan in id order.
+ * Lookups by id only allocate the {@link Optional} the repository contract returns.
+ *
+ * <p>Stored tasks are never mutated: every write stores a new instance. Reads share a read
+ * lock and writes take the write lock, so each call is atomic. Unlike the JDBC engine, a
+ * service transaction spanning several calls is not isolated from concurrent writers. Each
+ * call that changes something takes the next change number under the write lock, so
+ * change numbers follow the order in which changes become visible.
+ *
+ * <p>Contents live only as long as the process unless they are saved with
+ * {@link TaskSnapshotFile} or every change is logged by a {@link DurableTaskStore}. With a
+ * change log attached, a call returns only once the log has made durable every change it
+ * made or saw, and fails once the log has failed, so no caller is handed a change the log
+ * does not have.
+ */
+public class InMemoryTaskRepository implements TaskRepository {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongTaskMap tasks;
+    private final BitSet ids = new BitSet();
+    private final Map<TaskStatus, BitSet> idsByStatus = new EnumMap<>(TaskStatus.class);
+    private final List<Tombstone> tombstones = new ArrayList<>();
+    private final NavigableMap<Long, ArchivedTask> archive = new TreeMap<>();
+    private long lastId;
+    private long lastChange;
+    private long change;
+    private TaskChangeLog changeLog = TaskChangeLog.NONE;
+
+    public InMemoryTaskRepository(int initialCapacity) {
+        this.tasks = new LongTaskMap(initialCapacity);
+        for (TaskStatus status : TaskStatus.values()) {
+            idsByStatus.put(status, new BitSet());
+        }
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskStatus status) {
+        return read(() -> collect(idsByStatus.get(status), 0, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<Long> reserveIds(int count) {
+        return write(() -> {
+            List<Long> reserved = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                reserved.add(++lastId);
+            }
+            changeLog.idsReserved(lastId);
+            return reserved;
+        });
+    }
+
+    @Override
+    public List<TaskStatusCount> countByStatus() {
+        return read(() -> {
+            List<TaskStatusCount> counts = new ArrayList<>();
+            idsByStatus.forEach((status, statusIds) -> {
+                if (!statusIds.isEmpty()) {
+                    counts.add(new TaskStatusCount(status, statusIds.cardinality()));
+                }
+            });
+            return counts;
+        });
+    }
+
+    @Override
+    public List<Task> findPage(long after, int limit) {
+        return read(() -> collect(ids, after, limit));
+    }
+
+    @Override
+    public List<Task> findPageByStatus(TaskStatus status, long after, int limit) {
+        return read(() -> collect(idsByStatus.get(status), after, limit));
+    }
+
+    /**
+     * Streams a copy taken under the read lock, so the stream holds no lock while it is
+     * consumed.
+     */
+    @Override
+    public Stream<Task> streamAll() {
+        return findAll().stream();
+    }
+
+    @Override
+    public Stream<Task> streamByStatus(TaskStatus status) {
+        return findByStatus(status).stream();
+    }
+
+    /**
+     * Nothing is saved by skipping fields of tasks already in memory; this only trims them
+     * for the response.
+     */
+    @Override
+    public List<TaskProjection> findProjected(TaskStatus status, Set<TaskField> fields) {
+        return read(() -> {
+            BitSet selected = status == null ? ids : idsByStatus.get(status);
+            List<TaskProjection> projected = new ArrayList<>(selected.cardinality());
+            for (int id = selected.nextSetBit(0); id >= 0; id = selected.nextSetBit(id + 1)) {
+                projected.add(TaskProjection.of(tasks.get(id), fields));
+            }
+            return projected;
+        });
+    }
+
+    @Override
+    public Optional<TaskProjection> findProjectedById(long id, Set<TaskField> fields) {
+        return findById(id).map(task -> TaskProjection.of(task, fields));
+    }
+
+    /**
+     * Writes are numbered under the write lock as they happen, so there is nothing to take
+     * ahead of them; this only reports the number the next write will get.
+     */
+    @Override
+    public long nextChange() {
+        return read(() -> lastChange + 1);
+    }
+
+    @Override
+    public long lastChange() {
+        return read(() -> lastChange);
+    }
+
+    @Override
+    public List<Task> findChangedSince(long since, long after, long upTo, int limit) {
+        return read(() -> {
+            List<Task> changed = new ArrayList<>();
+            for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                Task task = tasks.get(id);
+                long changeNumber = task.getChangeNumber();
+                if ((changeNumber > since || changeNumber == since && id > after) && changeNumber <= upTo) {
+                    changed.add(task);
+                }
+            }
+            return changed.stream()
+                    .sorted(Comparator.comparing(Task::getChangeNumber).thenComparing(Task::getId))
+                    .limit(limit)
+                    .toList();
+        });
+    }
+
+    /**
+     * Tombstones are appended in {@code (changeNumber, taskId)} order, so the page starts at
+     * a binary search.
+     */
+    @Override
+    public List<TaskTombstone> findDeletedSince(long since, long after, long upTo, int limit) {
+        return read(() -> tombstones.subList(firstTombstoneAfter(since, after), tombstones.size()).stream()
+                .takeWhile(tombstone -> tombstone.changeNumber() <= upTo)
+                .limit(limit)
+                .map(tombstone -> new TaskTombstone(tombstone.taskId(), tombstone.changeNumber()))
+                .toList());
+    }
+
+    @Override
+    public int updateStatus(Long id, TaskStatus status) {
+        return write(() -> update(id, null, status, null));
+    }
+
+    @Override
+    public int updateStatus(Long id, TaskStatus status, long version) {
+        return write(() -> update(id, version, status, null));
+    }
+
+    @Override
+    public int updateDescription(Long id, String description) {
+        return write(() -> update(id, null, null, description));
+    }
+
+    @Override
+    public int updateDescription(Long id, String description, long version) {
+        return write(() -> update(id, version, null, description));
+    }
+
+    @Override
+    public int renewLease(Long id, String claimant, LocalDateTime leaseExpires) {
+        return write(() -> {
+            Task task = tasks.get(id);
+            if (task == null || task.getStatus() != TaskStatus.IN_PROGRESS
+                    || !claimant.equals(task.getClaimedBy())) {
+                return 0;
+            }
+            put(new Task(task.getId(), task.getName(), task.getDescription(), task.getStatus(),
+                    task.getCreated(), LocalDateTime.now(), claimant, leaseExpires, task.getVersion(),
+                    stamp()));
+            return 1;
+        });
+    }
+
+    /**
+     * Takes the lowest TODO ids, which are the oldest since ids are handed out in creation
+     * order. Claims are serialized by the write lock, so there is nothing to skip.
+     */
+    @Override
+    public List<Task> claim(String claimant, LocalDateTime leaseExpires, int max) {
+        return write(() -> {
+            BitSet todo = idsByStatus.get(TaskStatus.TODO);
+            LocalDateTime now = LocalDateTime.now();
+            List<Task> claimed = new ArrayList<>(Math.min(max, todo.cardinality()));
+            for (int id = todo.nextSetBit(0); id >= 0 && claimed.size() < max; id = todo.nextSetBit(id + 1)) {
+                claimed.add(lease(tasks.get(id), TaskStatus.IN_PROGRESS, claimant, leaseExpires, now));
+            }
+            return claimed;
+        });
+    }
+
+    @Override
+    public List<Long> releaseExpiredLeases(LocalDateTime now, int limit) {
+        return write(() -> {
+            BitSet inProgress = idsByStatus.get(TaskStatus.IN_PROGRESS);
+            List<Long> released = new ArrayList<>();
+            LocalDateTime updated = LocalDateTime.now();
+            for (int id = inProgress.nextSetBit(0); id >= 0 && released.size() < limit;
+                    id = inProgress.nextSetBit(id + 1)) {
+                Task task = tasks.get(id);
+                if (task.getLeaseExpires() != null && task.getLeaseExpires().isBefore(now)) {
+                    lease(task, TaskStatus.TODO, null, null, updated);
+                    released.add((long) id);
+                }
+            }
+            return released;
+        });
+    }
+
+    @Override
+    public int removeById(Long id) {
+        return write(() -> remove(id) != null ? 1 : 0);
+    }
+
+    @Override
+    public int removeById(Long id, long version) {
+        return write(() -> {
+            Task task = tasks.get(id);
+            if (task == null || task.getVersion() != version) {
+                return 0;
+            }
+            remove(id);
+            return 1;
+        });
+    }
+
+    @Override
+    public int addTombstone(Long id) {
+        return write(() -> {
+            tombstone(id, LocalDateTime.now(), stamp());
+            return 1;
+        });
+    }
+
+    @Override
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        return read(() -> ids.stream()
+                .filter(id -> tasks.get(id) != null)
+                .toList());
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> ids, TaskStatus status) {
+        return write(() -> {
+            int updated = 0;
+            for (Long id : ids) {
+                updated += update(id, null, status, null);
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public int deleteByIdIn(Collection<Long> ids) {
+        return write(() -> {
+            int deleted = 0;
+            for (Long id : ids) {
+                deleted += remove(id) != null ? 1 : 0;
+            }
+            return deleted;
+        });
+    }
+
+    /**
+     * Adds them in id order, which keeps tombstones sorted by change number and then id.
+     */
+    @Override
+    public int addTombstones(Collection<Long> ids) {
+        return write(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            int added = 0;
+            for (Long id : ids.stream().sorted().toList()) {
+                if (tasks.get(id) != null) {
+                    tombstone(id, now, stamp());
+                    added++;
+                }
+            }
+            return added;
+        });
+    }
+
+    /**
+     * Walks the DONE and CANCELLED ids together in id order. There is nothing to lock: the
+     * service archives the returned ids right away, and each of those calls is atomic.
+     */
+    @Override
+    public List<Long> lockArchivable(LocalDateTime cutoff, int limit) {
+        return read(() -> {
+            BitSet done = idsByStatus.get(TaskStatus.DONE);
+            BitSet cancelled = idsByStatus.get(TaskStatus.CANCELLED);
+            List<Long> archivable = new ArrayList<>();
+            int nextDone = done.nextSetBit(0);
+            int nextCancelled = cancelled.nextSetBit(0);
+            while (archivable.size() < limit && (nextDone >= 0 || nextCancelled >= 0)) {
+                int id;
+                if (nextCancelled < 0 || (nextDone >= 0 && nextDone < nextCancelled)) {
+                    id = nextDone;
+                    nextDone = done.nextSetBit(id + 1);
+                } else {
+                    id = nextCancelled;
+                    nextCancelled = cancelled.nextSetBit(id + 1);
+                }
+                if (tasks.get(id).getUpdated().isBefore(cutoff)) {
+                    archivable.add((long) id);
+                }
+            }
+            return archivable;
+        });
+    }
+
+    @Override
+    public int copyToArchive(Collection<Long> ids) {
+        return write(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            int copied = 0;
+            for (Long id : ids) {
+                Task task = tasks.get(id);
+                if (task != null) {
+                    archive(new ArchivedTask(task.getId(), task.getName(),
+                            task.getDescription(), task.getStatus(), task.getCreated(),
+                            task.getUpdated(), task.getVersion(), now));
+                    copied++;
+                }
+            }
+            return copied;
+        });
+    }
+
+    /**
+     * Inserts new tasks, giving them the next id unless they already have a reserved one,
+     * and replaces existing ones after checking their version like the JDBC engine does.
+     */
+    @Override
+    public <S extends Task> S save(S task) {
+        return write(() -> store(task));
+    }
+
+    @Override
+    public <S extends Task> List<S> saveAll(Iterable<S> tasks) {
+        return write(() -> {
+            List<S> saved = new ArrayList<>();
+            for (S task : tasks) {
+                saved.add(store(task));
+            }
+            return saved;
+        });
+    }
+
+    /**
+     * Spelled out rather than run through {@link #read}, so that the hottest lookups do not
+     * allocate a lambda.
+     */
+    @Override
+    public Optional<Task> findById(Long id) {
+        Optional<Task> task;
+        long position;
+        lock.readLock().lock();
+        try {
+            task = Optional.ofNullable(tasks.get(id));
+            position = changeLog.position();
+        } finally {
+            lock.readLock().unlock();
+        }
+        changeLog.awaitDurable(position);
+        return task;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        boolean exists;
+        long position;
+        lock.readLock().lock();
+        try {
+            exists = tasks.get(id) != null;
+            position = changeLog.position();
+        } finally {
+            lock.readLock().unlock();
+        }
+        changeLog.awaitDurable(position);
+        return exists;
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return read(() -> collect(ids, 0, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<Task> findAllById(Iterable<Long> ids) {
+        return read(() -> {
+            List<Task> found = new ArrayList<>();
+            for (Long id : ids) {
+                Task task = tasks.get(id);
+                if (task != null) {
+                    found.add(task);
+                }
+            }
+            return found;
+        });
+    }
+
+    @Override
+    public long count() {
+        return read(() -> (long) tasks.size());
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        removeById(id);
+    }
+
+    @Override
+    public void delete(Task task) {
+        removeById(task.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        write(() -> {
+            ids.forEach(this::remove);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Task> tasks) {
+        write(() -> {
+            tasks.forEach(task -> remove(task.getId()));
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        write(() -> {
+            clear();
+            changeLog.allTasksRemoved();
+            return null;
+        });
+    }
+
+    List<ArchivedTask> findArchivePage(long after, int limit) {
+        return read(() -> archive.tailMap(after, false).values().stream()
+                .limit(limit)
+                .toList());
+    }
+
+    int purgeArchive(LocalDateTime archivedBefore, int limit) {
+        return write(() -> {
+            int purged = 0;
+            var iterator = archive.values().iterator();
+            while (purged < limit && iterator.hasNext()) {
+                ArchivedTask task = iterator.next();
+                if (task.getArchived().isBefore(archivedBefore)) {
+                    iterator.remove();
+                    changeLog.archivedTaskPurged(task.getId());
+                    purged++;
+                }
+            }
+            return purged;
+        });
+    }
+
+    /**
+     * Tombstones are appended in change order, which is also time order, so the ones to
+     * purge are a prefix.
+     */
+    int purgeTombstones(LocalDateTime deletedBefore, int limit) {
+        return write(() -> {
+            int purged = 0;
+            while (purged < tombstones.size() && purged < limit
+                    && tombstones.get(purged).deleted().isBefore(deletedBefore)) {
+                purged++;
+            }
+            tombstones.subList(0, purged).clear();
+            if (purged > 0) {
+                changeLog.tombstonesPurged(purged);
+            }
+            return purged;
+        });
+    }
+
+    /**
+     * Writes every task, archived task and tombstone, consistent as of one instant.
+     */
+    public void writeSnapshot(DataOutput out) throws IOException {
+        snapshot().writeTo(out);
+    }
+
+    /**
+     * Copies the references to every task, archived task and tombstone under the read
+     * lock. None of them is ever mutated, so the copy can be serialized after the lock is
+     * released while writers carry on.
+     */
+    Snapshot snapshot() {
+        return read(() -> {
+            Task[] stored = new Task[tasks.size()];
+            int i = 0;
+            for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                stored[i++] = tasks.get(id);
+            }
+            return new Snapshot(lastId, lastChange, stored, List.copyOf(archive.values()),
+                    List.copyOf(tombstones));
+        });
+    }
+
+    /**
+     * Replaces the whole contents with a snapshot written by {@link #writeSnapshot}.
+     */
+    public void readSnapshot(DataInput in) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (in.readInt() != SnapshotCodec.MAGIC) {
+                throw new IOException("Not a task snapshot");
+            }
+            clear();
+            archive.clear();
+            tombstones.clear();
+            lastId = in.readLong();
+            lastChange = in.readLong();
+            for (int i = in.readInt(); i > 0; i--) {
+                put(SnapshotCodec.readTask(in));
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                ArchivedTask task = SnapshotCodec.readArchivedTask(in);
+                archive.put(task.getId(), task);
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                tombstones.add(new Tombstone(in.readLong(), SnapshotCodec.readTime(in), in.readLong()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sends every later change to {@code changeLog}, and makes each write wait until the
+     * log {@linkplain TaskChangeLog#awaitDurable(long) has made it durable}. Called once,
+     * after the contents have been recovered.
+     */
+    void attach(TaskChangeLog changeLog) {
+        if (this.changeLog != TaskChangeLog.NONE) {
+            throw new IllegalStateException("A change log is already attached");
+        }
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Applies logged changes, for recovery before a change log is attached.
+     */
+    TaskChangeLog replayer() {
+        if (changeLog != TaskChangeLog.NONE) {
+            throw new IllegalStateException("Cannot replay changes into a logged repository");
+        }
+        return new Replayer();
+    }
+
+    /**
+     * The read lock, held across rotating the log and taking a {@link #snapshot()} so that
+     * both see the same state.
+     */
+    Lock snapshotLock() {
+        return lock.readLock();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends Task> S store(S task) {
+        Long id = task.getId();
+        Task existing = id == null ? null : tasks.get(id);
+        if (existing != null && task.getVersion() != null
+                && !Objects.equals(existing.getVersion(), task.getVersion())) {
+            throw new OptimisticLockingFailureException("Task " + id + " was changed concurrently");
+        }
+        if (id == null) {
+            id = ++lastId;
+        } else {
+            lastId = Math.max(lastId, id);
+        }
+        Task stored = new Task(id, task.getName(), task.getDescription(), task.getStatus(),
+                task.getCreated(), task.getUpdated(), task.getClaimedBy(), task.getLeaseExpires(),
+                existing == null ? 0L : existing.getVersion() + 1, stamp());
+        put(stored);
+        return (S) stored;
+    }
+
+    /**
+     * A status change ends any lease, as in the JDBC engine.
+     */
+    private int update(Long id, Long expectedVersion, TaskStatus status, String description) {
+        Task task = tasks.get(id);
+        if (task == null || (expectedVersion != null && task.getVersion() != expectedVersion.longValue())) {
+            return 0;
+        }
+        put(new Task(task.getId(), task.getName(),
+                description != null ? description : task.getDescription(),
+                status != null ? status : task.getStatus(),
+                task.getCreated(), LocalDateTime.now(),
+                status != null ? null : task.getClaimedBy(),
+                status != null ? null : task.getLeaseExpires(),
+                task.getVersion() + 1, stamp()));
+        return 1;
+    }
+
+    private Task lease(Task task, TaskStatus status, String claimant, LocalDateTime leaseExpires,
+            LocalDateTime now) {
+        Task leased = new Task(task.getId(), task.getName(), task.getDescription(), status,
+                task.getCreated(), now, claimant, leaseExpires, task.getVersion() + 1, stamp());
+        put(leased);
+        return leased;
+    }
+
+    private void put(Task task) {
+        int id = index(task.getId());
+        Task previous = tasks.put(id, task);
+        if (previous != null) {
+            idsByStatus.get(previous.getStatus()).clear(id);
+        }
+        ids.set(id);
+        idsByStatus.get(task.getStatus()).set(id);
+        changeLog.taskStored(task);
+    }
+
+    private Task remove(long id) {
+        Task removed = tasks.remove(id);
+        if (removed != null) {
+            ids.clear((int) id);
+            idsByStatus.get(removed.getStatus()).clear((int) id);
+            changeLog.taskRemoved(id);
+        }
+        return removed;
+    }
+
+    private void clear() {
+        tasks.clear();
+        ids.clear();
+        idsByStatus.values().forEach(BitSet::clear);
+    }
+
+    private void tombstone(long id, LocalDateTime deleted, long changeNumber) {
+        tombstones.add(new Tombstone(id, deleted, changeNumber));
+        changeLog.tombstoneAdded(id, deleted, changeNumber);
+    }
+
+    /**
+     * The change number of the write in progress, taken the first time it changes
+     * something, so that a write changing nothing leaves no gap.
+     */
+    private long stamp() {
+        if (change == 0) {
+            change = ++lastChange;
+        }
+        return change;
+    }
+
+    private void archive(ArchivedTask task) {
+        archive.put(task.getId(), task);
+        changeLog.taskArchived(task);
+    }
+
+    private List<Task> collect(BitSet selected, long after, int limit) {
+        List<Task> result = new ArrayList<>(Math.min(limit, selected.cardinality()));
+        if (after >= Integer.MAX_VALUE) {
+            return result;
+        }
+        int from = (int) Math.max(after + 1, 0);
+        for (int id = selected.nextSetBit(from); id >= 0 && result.size() < limit;
+                id = selected.nextSetBit(id + 1)) {
+            result.add(tasks.get(id));
+        }
+        return result;
+    }
+
+    private int firstTombstoneAfter(long since, long after) {
+        int low = 0;
+        int high = tombstones.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            Tombstone tombstone = tombstones.get(middle);
+            if (tombstone.changeNumber() > since
+                    || tombstone.changeNumber() == since && tombstone.taskId() > after) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Ids double as bitset indexes, which are ints.
+     */
+    private static int index(long id) {
+        if (id < 1 || id >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Task id out of range for the in-memory engine: " + id);
+        }
+        return (int) id;
+    }
+
+    /**
+     * Runs {@code action} under the read lock, then waits until every change it may have
+     * seen is durable: a change is visible in memory as soon as its writer releases the
+     * lock, before the log has synced it.
+     */
+    private <T> T read(Supplier<T> action) {
+        if (lock.isWriteLockedByCurrentThread()) {
+            return action.get();
+        }
+        T result;
+        long position;
+        lock.readLock().lock();
+        try {
+            result = action.get();
+            position = changeLog.position();
+        } finally {
+            lock.readLock().unlock();
+        }
+        changeLog.awaitDurable(position);
+        return result;
+    }
+
+    /**
+     * Runs {@code action} under the write lock, then waits for its changes to be durable.
+     * The wait happens after the lock is released so that concurrent writers share one
+     * log sync, and is skipped by nested writes, which the outermost one waits for.
+     */
+    private <T> T write(Supplier<T> action) {
+        if (lock.isWriteLockedByCurrentThread()) {
+            return action.get();
+        }
+        T result;
+        long position;
+        lock.writeLock().lock();
+        try {
+            result = action.get();
+            position = changeLog.position();
+        } finally {
+            change = 0;
+            lock.writeLock().unlock();
+        }
+        changeLog.awaitDurable(position);
+        return result;
+    }
+
+    private record Tombstone(long taskId, LocalDateTime deleted, long changeNumber) {
+    }
+
+    /**
+     * The contents as of one instant, written without holding any lock.
+     */
+    static final class Snapshot {
+
+        private final long lastId;
+        private final long lastChange;
+        private final Task[] tasks;
+        private final List<ArchivedTask> archive;
+        private final List<Tombstone> tombstones;
+
+        private Snapshot(long lastId, long lastChange, Task[] tasks, List<ArchivedTask> archive,
+                List<Tombstone> tombstones) {
+            this.lastId = lastId;
+            this.lastChange = lastChange;
+            this.tasks = tasks;
+            this.archive = archive;
+            this.tombstones = tombstones;
+        }
+
+        void writeTo(DataOutput out) throws IOException {
+            out.writeInt(SnapshotCodec.MAGIC);
+            out.writeLong(lastId);
+            out.writeLong(lastChange);
+            out.writeInt(tasks.length);
+            for (Task task : tasks) {
+                SnapshotCodec.writeTask(out, task);
+            }
+            out.writeInt(archive.size());
+            for (ArchivedTask task : archive) {
+                SnapshotCodec.writeArchivedTask(out, task);
+            }
+            out.writeInt(tombstones.size());
+            for (Tombstone tombstone : tombstones) {
+                out.writeLong(tombstone.taskId());
+                SnapshotCodec.writeTime(out, tombstone.deleted());
+                out.writeLong(tombstone.changeNumber());
+            }
+        }
+    }
+
+    private class Replayer implements TaskChangeLog {
+
+        @Override
+        public void taskStored(Task task) {
+            put(task);
+            lastId = Math.max(lastId, task.getId());
+            lastChange = Math.max(lastChange, task.getChangeNumber());
+        }
+
+        @Override
+        public void taskRemoved(long id) {
+            remove(id);
+        }
+
+        @Override
+        public void allTasksRemoved() {
+            clear();
+        }
+
+        @Override
+        public void tombstoneAdded(long id, LocalDateTime deleted, long changeNumber) {
+            tombstone(id, deleted, changeNumber);
+            lastChange = Math.max(lastChange, changeNumber);
+        }
+
+        @Override
+        public void taskArchived(ArchivedTask task) {
+            archive(task);
+        }
+
+        @Override
+        public void archivedTaskPurged(long id) {
+            archive.remove(id);
+        }
+
+        @Override
+        public void tombstonesPurged(int count) {
+            tombstones.subList(0, count).clear();
+        }
+
+        @Override
+        public void idsReserved(long lastId) {
+            InMemoryTaskRepository.this.lastId = Math.max(InMemoryTaskRepository.this.lastId, lastId);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ctambaoan.taskapi.repository.memory;
+
+import ctambaoan.taskapi.domain.Task;
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from a primitive {@code long} id to a task. Keys and values live
+ * in two parallel arrays probed linearly, so a lookup neither boxes the key nor allocates.
+ * Id {@code 0} marks an empty slot, which is safe because ids start at 1. Removal shifts
+ * the following entries back instead of leaving tombstones, so probe sequences stay short.
+ *
+ * <p>Not thread-safe; {@link InMemoryTaskRepository} guards it with its lock.
+ */
+final class LongTaskMap {
+
+    private static final long EMPTY = 0L;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Task[] values;
+    private int shift;
+    private int mask;
+    private int size;
+
+    LongTaskMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    Task get(long key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == EMPTY) {
+                return null;
+            }
+        }
+    }
+
+    Task put(long key, Task value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Task ids start at 1");
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                Task previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+            if (k == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return null;
+            }
+        }
+    }
+
+    Task remove(long key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                Task previous = values[i];
+                shiftBack(i);
+                size--;
+                return previous;
+            }
+            if (k == EMPTY) {
+                return null;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Fills the hole at {@code hole} by moving back every later entry of the same cluster
+     * whose home slot does not lie cyclically between the hole and its current slot.
+     */
+    private void shiftBack(int hole) {
+        for (int i = (hole + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = slot(keys[i]);
+            boolean reachable = hole <= i ?
+                    hole < home && home <= i :
+                    hole < home || home <= i;
+            if (!reachable) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+    }
+
+    /**
+     * Fibonacci hashing: sequential ids spread evenly over the table.
+     */
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Task[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int j = slot(oldKeys[i]);
+                while (keys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Task[capacity];
+        mask = capacity - 1;
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
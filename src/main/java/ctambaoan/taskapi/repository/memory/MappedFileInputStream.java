@@ -0,0 +1,72 @@
+package ctambaoan.taskapi.repository.memory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file through memory-mapped regions, so reading copies straight from the page
+ * cache without read calls. Files larger than one mapping are mapped a region at a time.
+ */
+final class MappedFileInputStream extends InputStream {
+
+    private static final long REGION_SIZE = 64L << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private long regionStart;
+    private MappedByteBuffer region;
+
+    MappedFileInputStream(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        map(0);
+    }
+
+    long remaining() {
+        return size - regionStart - region.position();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!region.hasRemaining() && !nextRegion()) {
+            return -1;
+        }
+        return region.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!region.hasRemaining() && !nextRegion()) {
+            return -1;
+        }
+        int count = Math.min(length, region.remaining());
+        region.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean nextRegion() throws IOException {
+        long start = regionStart + region.limit();
+        if (start >= size) {
+            return false;
+        }
+        map(start);
+        return true;
+    }
+
+    private void map(long start) throws IOException {
+        regionStart = start;
+        region = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_SIZE, size - start));
+    }
+}
@@ -0,0 +1,70 @@
+package ctambaoan.taskapi.repository.memory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a new file through memory-mapped regions, so writing is a copy into the page
+ * cache without write calls. The file grows a region at a time while it is written and
+ * is truncated to what was written and synced on {@link #close()}.
+ */
+final class MappedFileOutputStream extends OutputStream {
+
+    private static final long REGION_SIZE = 64L << 20;
+
+    private final FileChannel channel;
+    private long regionStart;
+    private MappedByteBuffer region;
+
+    MappedFileOutputStream(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map(0);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!region.hasRemaining()) {
+            nextRegion();
+        }
+        region.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!region.hasRemaining()) {
+                nextRegion();
+            }
+            int count = Math.min(length, region.remaining());
+            region.put(bytes, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            region.force();
+            channel.truncate(regionStart + region.position());
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void nextRegion() throws IOException {
+        region.force();
+        map(regionStart + region.capacity());
+    }
+
+    private void map(long start) throws IOException {
+        regionStart = start;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, start, REGION_SIZE);
+    }
+}
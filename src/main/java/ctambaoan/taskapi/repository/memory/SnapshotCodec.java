@@ -0,0 +1,102 @@
+package ctambaoan.taskapi.repository.memory;
+
+import ctambaoan.taskapi.domain.ArchivedTask;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of tasks for the in-memory engine's files. Timestamps are written as
+ * seconds and nanoseconds of the local date-time, preceded by a presence flag where they are
+ * optional, strings as length-prefixed UTF-8 with {@code -1} for null, and statuses by
+ * ordinal. {@link #MAGIC} changes whenever the encoding does.
+ */
+final class SnapshotCodec {
+
+    static final int MAGIC = 0x54534B33;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private SnapshotCodec() {
+    }
+
+    static void writeTask(DataOutput out, Task task) throws IOException {
+        out.writeLong(task.getId());
+        writeString(out, task.getName());
+        writeString(out, task.getDescription());
+        out.writeByte(task.getStatus().ordinal());
+        writeTime(out, task.getCreated());
+        writeTime(out, task.getUpdated());
+        writeString(out, task.getClaimedBy());
+        writeOptionalTime(out, task.getLeaseExpires());
+        out.writeLong(task.getVersion());
+        out.writeLong(task.getChangeNumber());
+    }
+
+    static Task readTask(DataInput in) throws IOException {
+        return new Task(in.readLong(), readString(in), readString(in), STATUSES[in.readByte()],
+                readTime(in), readTime(in), readString(in), readOptionalTime(in), in.readLong(),
+                in.readLong());
+    }
+
+    static void writeArchivedTask(DataOutput out, ArchivedTask task) throws IOException {
+        out.writeLong(task.getId());
+        writeString(out, task.getName());
+        writeString(out, task.getDescription());
+        out.writeByte(task.getStatus().ordinal());
+        writeTime(out, task.getCreated());
+        writeTime(out, task.getUpdated());
+        out.writeLong(task.getVersion());
+        writeTime(out, task.getArchived());
+    }
+
+    static ArchivedTask readArchivedTask(DataInput in) throws IOException {
+        return new ArchivedTask(in.readLong(), readString(in), readString(in),
+                STATUSES[in.readByte()], readTime(in), readTime(in), in.readLong(), readTime(in));
+    }
+
+    static void writeTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    static LocalDateTime readTime(DataInput in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    static void writeOptionalTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            writeTime(out, time);
+        }
+    }
+
+    static LocalDateTime readOptionalTime(DataInput in) throws IOException {
+        return in.readBoolean() ? readTime(in) : null;
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,63 @@
+package ctambaoan.taskapi.repository.memory;
+
+import ctambaoan.taskapi.domain.ArchivedTask;
+import ctambaoan.taskapi.domain.Task;
+import java.time.LocalDateTime;
+
+/**
+ * Receives every change {@link InMemoryTaskRepository} makes, as the resulting state rather
+ * than the operation, so that applying the same changes in order rebuilds the same
+ * contents. {@link TaskWriteAheadLog} records them, and replaying a log feeds them back
+ * through {@link InMemoryTaskRepository#replayer()}.
+ *
+ * <p>Changes are reported under the repository's write lock, one writer at a time.
+ */
+interface TaskChangeLog {
+
+    TaskChangeLog NONE = new TaskChangeLog() {
+    };
+
+    default void taskStored(Task task) {
+    }
+
+    default void taskRemoved(long id) {
+    }
+
+    default void allTasksRemoved() {
+    }
+
+    default void tombstoneAdded(long id, LocalDateTime deleted, long changeNumber) {
+    }
+
+    default void taskArchived(ArchivedTask task) {
+    }
+
+    default void archivedTaskPurged(long id) {
+    }
+
+    /**
+     * The oldest {@code count} tombstones were purged.
+     */
+    default void tombstonesPurged(int count) {
+    }
+
+    /**
+     * Ids up to {@code lastId} were handed out and must not be reused.
+     */
+    default void idsReserved(long lastId) {
+    }
+
+    /**
+     * Position after the last change reported so far.
+     */
+    default long position() {
+        return 0;
+    }
+
+    /**
+     * Blocks until every change up to {@code position} is durable, if the log promises that,
+     * and throws once the log has failed.
+     */
+    default void awaitDurable(long position) {
+    }
+}
@@ -0,0 +1,61 @@
+package ctambaoan.taskapi.repository.memory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads an {@link InMemoryTaskRepository} from a snapshot file on startup and writes it
+ * back on shutdown. The snapshot is written to a temporary file next to the target and
+ * then moved over it atomically, so a crash while saving leaves the previous snapshot.
+ * Changes made since the last save are lost if the process dies.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TaskSnapshotFile {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InMemoryTaskRepository repository;
+    private final Path file;
+
+    public void load() {
+        if (!Files.exists(file)) {
+            log.info("No task snapshot at {}, starting empty", file);
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            repository.readSnapshot(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read task snapshot " + file, ex);
+        }
+        log.info("Loaded {} tasks from {}", repository.count(), file);
+    }
+
+    public void save() {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+                repository.writeSnapshot(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write task snapshot " + file, ex);
+        }
+        log.info("Saved {} tasks to {}", repository.count(), file);
+    }
+}
@@ -0,0 +1,420 @@
+package ctambaoan.taskapi.repository.memory;
+
+import ctambaoan.taskapi.domain.ArchivedTask;
+import ctambaoan.taskapi.domain.Task;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only log of the changes of an {@link InMemoryTaskRepository}. Each change becomes
+ * a record framed by its length and CRC32, appended to an in-memory buffer under the
+ * repository's write lock. A flusher thread swaps the buffer out and writes it to the
+ * current segment file, then syncs it according to the {@link FsyncPolicy}. With
+ * {@link FsyncPolicy#ALWAYS} it flushes as soon as there is anything to write, so records
+ * appended while a sync is in flight go out together in the next one: a group commit.
+ *
+ * <p>Once a write or sync fails, the log stays failed: every later change is rejected,
+ * under any policy, rather than kept only in memory.
+ *
+ * <p>Replaying a segment stops at the first torn or corrupt record, which can only be the
+ * tail of a write interrupted by a crash.
+ */
+@Slf4j
+final class TaskWriteAheadLog implements TaskChangeLog, Closeable {
+
+    // 1 and 9 stored tasks before they had leases and change numbers, and 4 added tombstones
+    // without change numbers; such logs are rejected, not misread
+    private static final byte TASK_STORED = 10;
+    private static final byte TASK_REMOVED = 2;
+    private static final byte ALL_TASKS_REMOVED = 3;
+    private static final byte TOMBSTONE_ADDED = 11;
+    private static final byte TASK_ARCHIVED = 5;
+    private static final byte ARCHIVED_TASK_PURGED = 6;
+    private static final byte TOMBSTONES_PURGED = 7;
+    private static final byte IDS_RESERVED = 8;
+
+    private static final int HEADER_SIZE = 8;
+
+    private final FsyncPolicy fsync;
+    private final long syncIntervalNanos;
+    private final Thread flusher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final Buffer record = new Buffer();
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+    private final CRC32 crc = new CRC32();
+    private Buffer pending = new Buffer();
+    private long appendedPosition;
+    private long syncedPosition;
+    private IOException failure;
+    private boolean closed;
+
+    private final ReentrantLock io = new ReentrantLock();
+    private Buffer writing = new Buffer();
+    private FileChannel channel;
+
+    TaskWriteAheadLog(Path segment, FsyncPolicy fsync, Duration syncInterval) throws IOException {
+        this.fsync = fsync;
+        this.syncIntervalNanos = syncInterval.toNanos();
+        this.channel = open(segment);
+        this.flusher = Thread.ofPlatform()
+                .name("task-wal-flusher")
+                .daemon()
+                .start(this::runFlusher);
+    }
+
+    @Override
+    public void taskStored(Task task) {
+        append(TASK_STORED, out -> SnapshotCodec.writeTask(out, task));
+    }
+
+    @Override
+    public void taskRemoved(long id) {
+        append(TASK_REMOVED, out -> out.writeLong(id));
+    }
+
+    @Override
+    public void allTasksRemoved() {
+        append(ALL_TASKS_REMOVED, out -> {
+        });
+    }
+
+    @Override
+    public void tombstoneAdded(long id, LocalDateTime deleted, long changeNumber) {
+        append(TOMBSTONE_ADDED, out -> {
+            out.writeLong(id);
+            SnapshotCodec.writeTime(out, deleted);
+            out.writeLong(changeNumber);
+        });
+    }
+
+    @Override
+    public void taskArchived(ArchivedTask task) {
+        append(TASK_ARCHIVED, out -> SnapshotCodec.writeArchivedTask(out, task));
+    }
+
+    @Override
+    public void archivedTaskPurged(long id) {
+        append(ARCHIVED_TASK_PURGED, out -> out.writeLong(id));
+    }
+
+    @Override
+    public void tombstonesPurged(int count) {
+        append(TOMBSTONES_PURGED, out -> out.writeInt(count));
+    }
+
+    @Override
+    public void idsReserved(long lastId) {
+        append(IDS_RESERVED, out -> out.writeLong(lastId));
+    }
+
+    @Override
+    public long position() {
+        lock.lock();
+        try {
+            return appendedPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+        lock.lock();
+        try {
+            if (fsync != FsyncPolicy.ALWAYS) {
+                checkNotFailed();
+                return;
+            }
+            while (syncedPosition < position) {
+                checkNotFailed();
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes and syncs everything appended so far, then continues in a new segment. The
+     * caller makes sure that nothing is appended meanwhile.
+     */
+    void rotate(Path segment) throws IOException {
+        io.lock();
+        try {
+            flush(true);
+            channel.close();
+            channel = open(segment);
+        } finally {
+            io.unlock();
+        }
+    }
+
+    /**
+     * Stops the flusher, then writes and syncs what is left.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        io.lock();
+        try {
+            flush(true);
+            channel.close();
+        } finally {
+            io.unlock();
+        }
+        lock.lock();
+        try {
+            synced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies every intact record of {@code segment} to {@code target} and returns how many
+     * there were.
+     */
+    static int replay(Path segment, TaskChangeLog target) throws IOException {
+        try (MappedFileInputStream in = new MappedFileInputStream(segment)) {
+            DataInputStream data = new DataInputStream(in);
+            CRC32 crc = new CRC32();
+            byte[] payload = new byte[256];
+            int records = 0;
+            while (in.remaining() >= HEADER_SIZE) {
+                int length = data.readInt();
+                int checksum = data.readInt();
+                if (length <= 0 || length > in.remaining()) {
+                    break;
+                }
+                if (payload.length < length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                data.readFully(payload, 0, length);
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                apply(new DataInputStream(new ByteArrayInputStream(payload, 0, length)), target);
+                records++;
+            }
+            if (in.remaining() > 0) {
+                log.warn("Ignored a torn record at the end of {}", segment);
+            }
+            return records;
+        }
+    }
+
+    private static void apply(DataInput in, TaskChangeLog target) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TASK_STORED -> target.taskStored(SnapshotCodec.readTask(in));
+            case TASK_REMOVED -> target.taskRemoved(in.readLong());
+            case ALL_TASKS_REMOVED -> target.allTasksRemoved();
+            case TOMBSTONE_ADDED -> target.tombstoneAdded(in.readLong(), SnapshotCodec.readTime(in),
+                    in.readLong());
+            case TASK_ARCHIVED -> target.taskArchived(SnapshotCodec.readArchivedTask(in));
+            case ARCHIVED_TASK_PURGED -> target.archivedTaskPurged(in.readLong());
+            case TOMBSTONES_PURGED -> target.tombstonesPurged(in.readInt());
+            case IDS_RESERVED -> target.idsReserved(in.readLong());
+            default -> throw new IOException("Unknown log record type " + type);
+        }
+    }
+
+    private void append(byte type, RecordWriter writer) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Write-ahead log is closed");
+            }
+            checkNotFailed();
+            record.reset();
+            recordOut.writeByte(type);
+            writer.write(recordOut);
+            crc.reset();
+            crc.update(record.array(), 0, record.size());
+            pending.writeInt(record.size());
+            pending.writeInt((int) crc.getValue());
+            pending.write(record.array(), 0, record.size());
+            appendedPosition += HEADER_SIZE + record.size();
+            if (fsync == FsyncPolicy.ALWAYS) {
+                appended.signal();
+            }
+        } catch (IOException ex) {
+            // in-memory buffers do not throw
+            throw new UncheckedIOException(ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        try {
+            while (awaitRecords()) {
+                flush(fsync != FsyncPolicy.NEVER);
+            }
+        } catch (IOException ex) {
+            log.error("Write-ahead log failed, rejecting further changes", ex);
+        }
+    }
+
+    /**
+     * Waits until records are due to be written, returning false once the log is closed.
+     */
+    private boolean awaitRecords() {
+        lock.lock();
+        try {
+            if (fsync == FsyncPolicy.ALWAYS) {
+                while (pending.size() == 0 && !closed) {
+                    appended.awaitUninterruptibly();
+                }
+            } else if (!closed) {
+                appended.awaitNanos(syncIntervalNanos);
+            }
+            return !closed;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flush(boolean force) throws IOException {
+        io.lock();
+        try {
+            Buffer batch;
+            long position;
+            lock.lock();
+            try {
+                batch = pending;
+                pending = writing;
+                writing = batch;
+                position = appendedPosition;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(batch.array(), 0, batch.size());
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                batch.reset();
+                if (force) {
+                    channel.force(false);
+                }
+            } catch (IOException ex) {
+                fail(ex);
+                throw ex;
+            }
+            lock.lock();
+            try {
+                syncedPosition = position;
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            io.unlock();
+        }
+    }
+
+    /**
+     * Called with {@link #lock} held.
+     */
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log failed", failure);
+        }
+    }
+
+    private void fail(IOException ex) {
+        lock.lock();
+        try {
+            failure = ex;
+            synced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Creates the segment and syncs its directory, so that the file itself survives a crash
+     * before any older segment or snapshot is deleted.
+     */
+    private static FileChannel open(Path segment) throws IOException {
+        FileChannel created = FileChannel.open(segment, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        try {
+            syncDirectory(segment.toAbsolutePath().getParent());
+        } catch (IOException ex) {
+            created.close();
+            throw ex;
+        }
+        return created;
+    }
+
+    /**
+     * Makes the creation, renaming and deletion of files in {@code directory} durable.
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer() {
+            super(64 * 1024);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ctambaoan.taskapi.service;
+
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.exception.ServiceOverloadedException;
+import ctambaoan.taskapi.exception.TaskRequestTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs {@link TaskService} calls on a dedicated bounded executor and returns their results
+ * as {@link CompletableFuture}s, so the thread that accepted a request does not wait for
+ * the database. A call that finds the queue full fails with
+ * {@link ServiceOverloadedException}. A call that does not complete within its timeout
+ * fails with {@link TaskRequestTimeoutException}. Timing out or cancelling a call before
+ * it has started takes it out of the queue for good; a call that already started runs to
+ * completion and its result is dropped, since interrupting it could abandon a transaction
+ * halfway. The exception tells the two apart.
+ */
+public class AsyncTaskService implements AutoCloseable {
+
+    private final TaskService service;
+    private final ThreadPoolExecutor executor;
+
+    public AsyncTaskService(TaskService service, ThreadPoolExecutor executor) {
+        this.service = service;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Task> create(String name, String description, Duration timeout) {
+        return submit(() -> service.create(name, description), timeout);
+    }
+
+    public CompletableFuture<Task> findById(Long id, Duration timeout) {
+        return submit(() -> service.findById(id), timeout);
+    }
+
+    public CompletableFuture<List<Task>> findPage(TaskStatus status, Long after, int limit,
+            Duration timeout) {
+        return submit(() -> status == null ?
+                service.findPage(after, limit) :
+                service.findPageByStatus(status, after, limit), timeout);
+    }
+
+    public CompletableFuture<Void> markAsDone(Long id, Duration timeout) {
+        return submit(() -> {
+            service.markAsDone(id);
+            return null;
+        }, timeout);
+    }
+
+    public CompletableFuture<Void> updateDescription(Long id, String description, Duration timeout) {
+        return submit(() -> {
+            service.updateDescription(id, description);
+            return null;
+        }, timeout);
+    }
+
+    public CompletableFuture<Void> delete(Long id, Duration timeout) {
+        return submit(() -> {
+            service.delete(id);
+            return null;
+        }, timeout);
+    }
+
+    /**
+     * Waits for the calls already accepted to finish.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * The worker and a timeout or cancellation race for {@code claimed}: whichever sets it
+     * first decides whether the call runs.
+     */
+    private <T> CompletableFuture<T> submit(Callable<T> call, Duration timeout) {
+        CompletableFuture<T> outcome = new CompletableFuture<>();
+        AtomicBoolean claimed = new AtomicBoolean();
+        Runnable task = () -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                outcome.complete(call.call());
+            } catch (Throwable ex) {
+                outcome.completeExceptionally(ex);
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            return CompletableFuture.failedFuture(new ServiceOverloadedException());
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        outcome.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).whenComplete((value, ex) -> {
+            if (ex instanceof TimeoutException) {
+                boolean started = !withdraw(task, claimed);
+                result.completeExceptionally(new TaskRequestTimeoutException(timeout, started));
+            } else if (ex != null) {
+                result.completeExceptionally(ex);
+            } else {
+                result.complete(value);
+            }
+        });
+        result.whenComplete((value, ex) -> {
+            if (ex != null) {
+                withdraw(task, claimed);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns whether the call was withdrawn before it started.
+     */
+    private boolean withdraw(Runnable task, AtomicBoolean claimed) {
+        boolean withdrawn = claimed.compareAndSet(false, true);
+        executor.remove(task);
+        return withdrawn;
+    }
+}
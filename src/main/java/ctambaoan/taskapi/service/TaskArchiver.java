@@ -0,0 +1,48 @@
+package ctambaoan.taskapi.service;
+
+import ctambaoan.taskapi.config.ArchiveProperties;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One archiving run: moves finished tasks older than {@code age} to the archive when
+ * archiving is enabled, then purges archived tasks and tombstones older than
+ * {@code retention}. Deletes leave tombstones whether or not tasks are archived, so the
+ * purge always runs. Both steps work in batches of {@code batchSize}, each in its own
+ * transaction, so row locks are held only briefly and concurrent writes are never blocked
+ * for the length of the run.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TaskArchiver implements Runnable {
+
+    private final TaskService service;
+    private final ArchiveProperties properties;
+    private final Clock clock;
+
+    @Override
+    public void run() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int archived = 0;
+        if (properties.enabled()) {
+            int moved;
+            do {
+                moved = service.archive(now.minus(properties.age()), properties.batchSize()).size();
+                archived += moved;
+            } while (moved == properties.batchSize());
+        }
+
+        int purged = 0;
+        int removed;
+        do {
+            removed = service.purgeArchive(now.minus(properties.retention()), properties.batchSize());
+            purged += removed;
+        } while (removed > 0);
+
+        if (archived > 0 || purged > 0) {
+            log.info("Archived {} tasks and purged {} archived rows", archived, purged);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package ctambaoan.taskapi.service;
+
+import ctambaoan.taskapi.config.TaskEventProperties;
+import ctambaoan.taskapi.domain.TaskEvent;
+import ctambaoan.taskapi.domain.TaskStatus;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Numbers committed {@link TaskEvent}s and fans them out to subscribers. The most recent
+ * {@code bufferSize} events are kept in a ring buffer so that a subscriber can resume
+ * after the last event it saw. Ids start from the startup time in microseconds, so an id
+ * handed out before a restart is older than anything in the buffer and resumes with a
+ * reset rather than with the wrong events.
+ *
+ * <p>Publishing only appends the event to a lock-free queue and wakes a single dispatcher
+ * thread, which numbers events and fans them out, so writers neither wait for subscribers
+ * nor for each other. Subscribing first dispatches whatever is still queued, so a new
+ * subscription sees every event published before it.
+ *
+ * <p>Every subscriber has its own bounded queue. Dispatching never blocks: a subscriber
+ * whose queue is full is dropped and has to reconnect.
+ */
+@Component
+public class TaskEventFeed implements SmartLifecycle {
+
+    private final Entry[] ring;
+    private final int subscriberQueueSize;
+    private final Queue<TaskEvent> published = new ConcurrentLinkedQueue<>();
+    private final Set<Subscription> subscribers = new LinkedHashSet<>();
+    private long lastId = System.currentTimeMillis() * 1000;
+    private volatile boolean running;
+    private volatile Thread dispatcher;
+
+    public TaskEventFeed(TaskEventProperties properties) {
+        this.ring = new Entry[properties.bufferSize()];
+        this.subscriberQueueSize = properties.subscriberQueueSize();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(TaskEvent event) {
+        published.offer(event);
+        Thread thread = dispatcher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Subscribes to events matching {@code status}, or to all events when it is null.
+     * Events that do not carry a status, such as deletions, always match. With a
+     * {@code lastEventId} the buffered events after it are replayed first; when that id is
+     * no longer buffered the subscription {@linkplain Subscription#resetRequired() requires a
+     * reset} instead.
+     */
+    public synchronized Subscription subscribe(Long lastEventId, TaskStatus status) {
+        dispatch();
+        List<Entry> replay = new ArrayList<>();
+        boolean reset = false;
+        if (lastEventId != null) {
+            long oldest = Math.max(lastId - ring.length + 1, 1);
+            reset = lastEventId > lastId || lastEventId < oldest - 1;
+            for (long id = lastEventId + 1; !reset && id <= lastId; id++) {
+                replay.add(ring[slot(id)]);
+            }
+        }
+        Subscription subscription = new Subscription(status, subscriberQueueSize + replay.size(),
+                reset, lastId);
+        replay.forEach(subscription::offer);
+        subscribers.add(subscription);
+        return subscription;
+    }
+
+    public synchronized int subscriberCount() {
+        dispatch();
+        return subscribers.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        dispatcher = Thread.ofPlatform()
+                .name("task-event-feed")
+                .daemon()
+                .start(this::dispatchLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = dispatcher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        dispatcher = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * An event published after the dispatch leaves an unpark permit, so the park returns
+     * straight away instead of missing it.
+     */
+    private void dispatchLoop() {
+        while (running) {
+            synchronized (this) {
+                dispatch();
+            }
+            LockSupport.park(this);
+        }
+    }
+
+    /**
+     * Numbers and fans out the queued events in the order they were published. Called
+     * with the monitor held.
+     */
+    private void dispatch() {
+        TaskEvent event;
+        while ((event = published.poll()) != null) {
+            Entry entry = new Entry(++lastId, event);
+            ring[slot(entry.id())] = entry;
+            subscribers.removeIf(subscription -> !subscription.offer(entry));
+        }
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        subscribers.remove(subscription);
+    }
+
+    private int slot(long id) {
+        return (int) Math.floorMod(id, (long) ring.length);
+    }
+
+    public record Entry(long id, TaskEvent event) {
+    }
+
+    public final class Subscription {
+
+        private final TaskStatus status;
+        private final BlockingQueue<Entry> queue;
+        private final boolean resetRequired;
+        private final long resumeId;
+        private volatile boolean open = true;
+
+        private Subscription(TaskStatus status, int capacity, boolean resetRequired, long resumeId) {
+            this.status = status;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.resetRequired = resetRequired;
+            this.resumeId = resumeId;
+        }
+
+        /**
+         * Whether events were missed since the requested {@code Last-Event-ID}, in which
+         * case the subscriber has to reload its state and continue from {@link #resumeId()}.
+         */
+        public boolean resetRequired() {
+            return resetRequired;
+        }
+
+        public long resumeId() {
+            return resumeId;
+        }
+
+        public boolean isOpen() {
+            return open;
+        }
+
+        /**
+         * Waits up to {@code timeout} for the next event, returning null if none arrived.
+         */
+        public Entry poll(Duration timeout) throws InterruptedException {
+            return queue.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        public void cancel() {
+            open = false;
+            unsubscribe(this);
+        }
+
+        private boolean offer(Entry entry) {
+            TaskStatus eventStatus = entry.event().status();
+            if (status != null && eventStatus != null && eventStatus != status) {
+                return true;
+            }
+            if (!queue.offer(entry)) {
+                open = false;
+            }
+            return open;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ctambaoan.taskapi.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ctambaoan.taskapi.config.IdempotencyProperties;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.exception.IdempotencyKeyReusedException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates a task at most once per {@code Idempotency-Key}, so that a client retrying a
+ * create it never saw the answer to gets the task created the first time. Keys are held in
+ * a Caffeine cache bounded by size and time since the first request, each with a SHA-256
+ * digest of the request it came with and the id, version and creation time of the created
+ * task. A replay rebuilds the task as it was created from those and the request, instead of
+ * keeping every created task in memory for the lifetime of its key.
+ *
+ * <p>The first request for a key registers a future before it creates the task; concurrent
+ * duplicates wait for that future instead of creating another task. The create runs on the
+ * caller's thread, outside any cache lock. A failed create is forgotten, so it can be
+ * retried.
+ */
+@Component
+public class TaskIdempotencyStore {
+
+    private final TaskService service;
+    private final AsyncCache<String, Entry> entries;
+
+    public TaskIdempotencyStore(TaskService service, IdempotencyProperties properties) {
+        this.service = service;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .buildAsync();
+    }
+
+    /**
+     * Creates the task, or returns the one created earlier with the same key. Throws
+     * {@link IdempotencyKeyReusedException} when the key was used for a different task.
+     */
+    public Creation create(String key, String name, String description) {
+        byte[] digest = digest(name, description);
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> previous = entries.asMap().putIfAbsent(key, created);
+        if (previous == null) {
+            try {
+                Task task = service.create(name, description);
+                created.complete(new Entry(digest, task.getId(), task.getVersion(), task.getCreated()));
+                return new Creation(task, false);
+            } catch (RuntimeException | Error ex) {
+                entries.asMap().remove(key, created);
+                created.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        Entry entry = await(previous);
+        if (!MessageDigest.isEqual(entry.digest(), digest)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        return new Creation(new Task(entry.id(), name, description, TaskStatus.TODO,
+                entry.created(), entry.created(), null, null, entry.version(), null), true);
+    }
+
+    /**
+     * Length-prefixes each field, so that no two different requests share an input.
+     */
+    private static byte[] digest(String name, String description) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+        for (String field : new String[] {name, description}) {
+            byte[] bytes = field == null ? new byte[0] : field.getBytes(StandardCharsets.UTF_8);
+            sha256.update(ByteBuffer.allocate(Integer.BYTES)
+                    .putInt(field == null ? -1 : bytes.length)
+                    .array());
+            sha256.update(bytes);
+        }
+        return sha256.digest();
+    }
+
+    private static Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * @param replayed whether the task was created by an earlier request with the same key
+     */
+    public record Creation(Task task, boolean replayed) {
+    }
+
+    private record Entry(byte[] digest, Long id, Long version, LocalDateTime created) {
+    }
+}
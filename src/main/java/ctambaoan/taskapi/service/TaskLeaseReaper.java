@@ -0,0 +1,36 @@
+package ctambaoan.taskapi.service;
+
+import ctambaoan.taskapi.config.TaskQueueProperties;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One reaper run: hands tasks whose lease expired back to the queue, in batches of
+ * {@code reaperBatchSize} that each commit on their own, so a worker that died holding many
+ * tasks does not lock them all in one transaction.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TaskLeaseReaper implements Runnable {
+
+    private final TaskService service;
+    private final TaskQueueProperties properties;
+    private final Clock clock;
+
+    @Override
+    public void run() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int released = 0;
+        int batch;
+        do {
+            batch = service.releaseExpiredLeases(now, properties.reaperBatchSize()).size();
+            released += batch;
+        } while (batch == properties.reaperBatchSize());
+
+        if (released > 0) {
+            log.info("Returned {} tasks with expired leases to the queue", released);
+        }
+    }
+}
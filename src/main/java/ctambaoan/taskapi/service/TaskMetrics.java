@@ -0,0 +1,48 @@
+package ctambaoan.taskapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters that cannot be expressed with {@code @Timed}/{@code @Counted}. Summaries are
+ * registered once per operation and reused, so recording is a map lookup and an update.
+ */
+@Component
+public class TaskMetrics {
+
+    static final String RESULT_SIZE = "task.service.result.size";
+    static final String WRITE_BEHIND_DROPPED = "task.write-behind.dropped";
+
+    private final MeterRegistry registry;
+    private final Map<String, DistributionSummary> resultSizes = new ConcurrentHashMap<>();
+    private final Counter writeBehindDropped;
+
+    public TaskMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.writeBehindDropped = Counter.builder(WRITE_BEHIND_DROPPED)
+                .description("Created tasks the write-behind buffer gave up inserting on shutdown")
+                .baseUnit("tasks")
+                .register(registry);
+    }
+
+    public void recordResultSize(String operation, int size) {
+        resultSizes.computeIfAbsent(operation, this::resultSize).record(size);
+    }
+
+    public void recordWriteBehindDropped(int tasks) {
+        writeBehindDropped.increment(tasks);
+    }
+
+    private DistributionSummary resultSize(String operation) {
+        return DistributionSummary.builder(RESULT_SIZE)
+                .description("Number of tasks returned by list operations")
+                .baseUnit("tasks")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
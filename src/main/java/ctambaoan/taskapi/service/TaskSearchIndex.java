@@ -0,0 +1,360 @@
+package ctambaoan.taskapi.service;
+
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskEvent;
+import ctambaoan.taskapi.repository.TaskRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory inverted index over task names and descriptions. Each term maps to a sorted
+ * array of task ids, so a multi-term query is an intersection of sorted arrays driven by
+ * the shortest one, and prefix terms are a range scan over the sorted term dictionary.
+ *
+ * <p>The index is loaded from the repository before the application starts serving
+ * requests and is kept current from {@link TaskEvent}s after each commit. Queries share a
+ * read lock; updates take the write lock only for the few postings they touch. Events
+ * only carry the new text, so every task keeps the postings of its terms, as an array
+ * of references into the dictionary, to know which to leave when it changes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskSearchIndex implements SmartInitializingSingleton {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final String PREFIX_MARKER = "*";
+
+    private final TaskRepository repository;
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        try (Stream<Task> tasks = repository.streamAll()) {
+            tasks.forEach(task -> add(task.getId(), task.getName(), task.getDescription()));
+        }
+        log.info("Indexed {} tasks for search in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(TaskEvent event) {
+        switch (event.type()) {
+            case CREATED -> add(event.taskId(), event.name(), event.description());
+            case DESCRIPTION_UPDATED -> updateDescription(event.taskId(), event.description());
+            case DELETED, ARCHIVED -> remove(event.taskId());
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} ids, in ascending order, of tasks containing every term
+     * of the query. A term ending in {@code *} matches any word starting with it.
+     */
+    public List<Long> search(String query, int limit) {
+        List<Clause> clauses = parse(query);
+        if (clauses.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<List<Postings>> matches = new ArrayList<>(clauses.size());
+            for (Clause clause : clauses) {
+                List<Postings> postings = clause.prefix() ?
+                        new ArrayList<>(terms.subMap(clause.term(), true,
+                                clause.term() + Character.MAX_VALUE, false).values()) :
+                        terms.containsKey(clause.term()) ? List.of(terms.get(clause.term())) : List.of();
+                if (postings.isEmpty()) {
+                    return List.of();
+                }
+                matches.add(postings);
+            }
+            matches.sort((a, b) -> Long.compare(totalSize(a), totalSize(b)));
+            return intersect(matches, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void add(Long id, String name, String description) {
+        Set<String> nameTerms = tokenize(name);
+        Set<String> descriptionTerms = tokenize(description);
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                removePostings(id, previous.postings());
+            }
+            Postings[] postings = new Postings[nameTerms.size() + descriptionTerms.size()];
+            int count = 0;
+            for (String term : nameTerms) {
+                postings[count++] = addPosting(id, term);
+            }
+            documents.put(id, withDescription(id, postings, count, descriptionTerms));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void updateDescription(Long id, String description) {
+        Set<String> descriptionTerms = tokenize(description);
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.get(id);
+            if (previous == null) {
+                return;
+            }
+            Postings[] postings = previous.postings();
+            int nameCount = previous.nameCount();
+            for (int i = nameCount; i < postings.length; i++) {
+                if (!descriptionTerms.contains(postings[i].term)) {
+                    removePosting(id, postings[i]);
+                }
+            }
+            Postings[] updated = Arrays.copyOf(postings, nameCount + descriptionTerms.size());
+            documents.put(id, withDescription(id, updated, nameCount, descriptionTerms));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                removePostings(id, previous.postings());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fills {@code postings} after its first {@code nameCount} name terms with the
+     * description terms not among them, adding {@code id} to each. Called with the write
+     * lock held.
+     */
+    private Document withDescription(Long id, Postings[] postings, int nameCount,
+            Set<String> descriptionTerms) {
+
+        int count = nameCount;
+        for (String term : descriptionTerms) {
+            if (!containsTerm(postings, nameCount, term)) {
+                postings[count++] = addPosting(id, term);
+            }
+        }
+        return new Document(count == postings.length ? postings : Arrays.copyOf(postings, count),
+                nameCount);
+    }
+
+    private static boolean containsTerm(Postings[] postings, int count, String term) {
+        for (int i = 0; i < count; i++) {
+            if (postings[i].term.equals(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<Clause> parse(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        if (query == null) {
+            return clauses;
+        }
+        for (String word : query.trim().split("\\s+")) {
+            boolean prefix = word.endsWith(PREFIX_MARKER);
+            List<String> tokens = new ArrayList<>(tokenize(word));
+            for (int i = 0; i < tokens.size(); i++) {
+                clauses.add(new Clause(tokens.get(i), prefix && i == tokens.size() - 1));
+            }
+        }
+        return clauses;
+    }
+
+    /**
+     * Walks the candidates of the smallest clause in id order and keeps those found in
+     * every other clause, stopping as soon as {@code limit} ids have been collected.
+     */
+    private static List<Long> intersect(List<List<Postings>> matches, int limit) {
+        List<Postings> driver = matches.getFirst();
+        Postings single = driver.size() == 1 ? driver.getFirst() : null;
+        long[] candidates = single != null ? single.ids : union(driver);
+        int count = single != null ? single.size : candidates.length;
+        List<Long> result = new ArrayList<>(Math.min(limit, count));
+        for (int i = 0; i < count && result.size() < limit; i++) {
+            if (containedInAll(candidates[i], matches)) {
+                result.add(candidates[i]);
+            }
+        }
+        return result;
+    }
+
+    private static boolean containedInAll(long id, List<List<Postings>> matches) {
+        for (int i = 1; i < matches.size(); i++) {
+            if (!containedInAny(id, matches.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containedInAny(long id, List<Postings> postings) {
+        for (Postings posting : postings) {
+            if (posting.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] union(List<Postings> postings) {
+        long[] merged = new long[(int) totalSize(postings)];
+        int size = 0;
+        for (Postings posting : postings) {
+            System.arraycopy(posting.ids, 0, merged, size, posting.size);
+            size += posting.size;
+        }
+        Arrays.sort(merged);
+        int distinct = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (i == 0 || merged[i] != merged[i - 1]) {
+                merged[distinct++] = merged[i];
+            }
+        }
+        return Arrays.copyOf(merged, distinct);
+    }
+
+    private static long totalSize(Collection<Postings> postings) {
+        long total = 0;
+        for (Postings posting : postings) {
+            total += posting.size;
+        }
+        return total;
+    }
+
+    private Postings addPosting(Long id, String term) {
+        Postings postings = terms.computeIfAbsent(term, Postings::new);
+        postings.add(id);
+        return postings;
+    }
+
+    private void removePostings(Long id, Postings[] documentPostings) {
+        for (Postings postings : documentPostings) {
+            removePosting(id, postings);
+        }
+    }
+
+    /**
+     * A term is dropped from the dictionary once no task has it, so a document never
+     * refers to postings that are no longer in it.
+     */
+    private void removePosting(Long id, Postings postings) {
+        if (postings.remove(id) && postings.size == 0) {
+            terms.remove(postings.term);
+        }
+    }
+
+    private record Clause(String term, boolean prefix) {
+    }
+
+    /**
+     * The postings of every distinct term of a task: first those of its name, then those of
+     * its description not already in the name.
+     */
+    private record Document(Postings[] postings, int nameCount) {
+    }
+
+    /**
+     * Sorted, duplicate-free ids of the tasks containing one term. Ids are assigned in
+     * increasing order, so adding a new task is an append.
+     */
+    private static final class Postings {
+
+        private final String term;
+        private long[] ids = new long[4];
+        private int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    return;
+                }
+                insertAt(-index - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void insertAt(int index, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+}
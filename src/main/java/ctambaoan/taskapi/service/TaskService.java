@@ -1,22 +1,103 @@
 package ctambaoan.taskapi.service;
 
+import ctambaoan.taskapi.domain.ArchivedTask;
 import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskChanges;
+import ctambaoan.taskapi.domain.TaskField;
+import ctambaoan.taskapi.domain.TaskProjection;
 import ctambaoan.taskapi.domain.TaskStatus;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface TaskService {
 
     Task create(String name, String description);
 
+    List<Task> createAll(List<Task> tasks);
+
     List<Task> findAll();
 
     List<Task> findByStatus(TaskStatus status);
 
+    /**
+     * Reads only {@code fields} of all tasks, or of those in {@code status} when it is not
+     * null, in id order.
+     */
+    List<TaskProjection> findProjections(TaskStatus status, Set<TaskField> fields);
+
+    Map<TaskStatus, Long> countByStatus();
+
+    List<Task> findPage(Long after, int limit);
+
+    List<Task> findPageByStatus(TaskStatus status, Long after, int limit);
+
+    Stream<Task> streamAll();
+
+    Stream<Task> streamByStatus(TaskStatus status);
+
+    List<Task> search(String query, int limit);
+
+    /**
+     * Returns up to {@code limit} changes after change {@code since}, continuing after task
+     * {@code after} within it when that is set, or from the first change when
+     * {@code since} is null.
+     */
+    TaskChanges findChangedSince(Long since, Long after, int limit);
+
     Task findById(Long id);
 
+    TaskProjection findProjectionById(Long id, Set<TaskField> fields);
+
     void markAsDone(Long id);
 
+    void markAsDone(Long id, long expectedVersion);
+
+    Set<Long> markAllAsDone(Collection<Long> ids);
+
     void delete(Long id);
 
+    void delete(Long id, long expectedVersion);
+
+    Set<Long> deleteAll(Collection<Long> ids);
+
     void updateDescription(Long id, String description);
-}
\ No newline at end of file
+
+    void updateDescription(Long id, String description, long expectedVersion);
+
+    /**
+     * Claims up to {@code max} of the oldest TODO tasks for {@code claimant}, moving them to
+     * IN_PROGRESS under a lease of {@code leaseDuration}. Concurrent claims never get the
+     * same task.
+     */
+    List<Task> claim(String claimant, Duration leaseDuration, int max);
+
+    /**
+     * Extends the lease {@code claimant} holds on a task to {@code leaseDuration} from now.
+     */
+    Task renewLease(Long id, String claimant, Duration leaseDuration);
+
+    /**
+     * Returns up to {@code limit} tasks whose lease expired before {@code now} to TODO,
+     * returning their ids.
+     */
+    Set<Long> releaseExpiredLeases(LocalDateTime now, int limit);
+
+    /**
+     * Moves up to {@code limit} DONE or CANCELLED tasks last written before {@code cutoff}
+     * to the archive in one short transaction, returning the ids moved.
+     */
+    Set<Long> archive(LocalDateTime cutoff, int limit);
+
+    List<ArchivedTask> findArchivePage(Long after, int limit);
+
+    /**
+     * Deletes up to {@code limit} archived tasks and delete tombstones older than
+     * {@code cutoff}, returning how many rows were removed.
+     */
+    int purgeArchive(LocalDateTime cutoff, int limit);
+}
@@ -1,58 +1,459 @@
 package ctambaoan.taskapi.service;
 
+import ctambaoan.taskapi.domain.ArchivedTask;
 import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskChanges;
+import ctambaoan.taskapi.domain.TaskEvent;
+import ctambaoan.taskapi.domain.TaskField;
+import ctambaoan.taskapi.domain.TaskProjection;
 import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.exception.TaskLeaseNotHeldException;
 import ctambaoan.taskapi.exception.TaskNotFoundException;
+import ctambaoan.taskapi.exception.TaskVersionMismatchException;
+import ctambaoan.taskapi.repository.ArchivedTaskRepository;
 import ctambaoan.taskapi.repository.TaskRepository;
+import ctambaoan.taskapi.repository.TaskStatusCount;
+import ctambaoan.taskapi.repository.TaskTombstone;
+import io.micrometer.core.annotation.Timed;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Tasks read by id are cached in the {@value #CACHE} cache. Writes are single statements
+ * against the repository whose affected-row count decides whether the task existed, and
+ * evict the cached entry afterwards. The variants taking an expected version only apply
+ * when the stored version still matches.
+ *
+ * <p>Every operation is timed as {@value #TIMER} tagged with the method name. Every write
+ * publishes a {@link TaskEvent} per affected task, sets the task's {@code updated}
+ * timestamp and change number and, for deletes, records a tombstone for delta sync. A
+ * write runs in a transaction that first takes the change counter with
+ * {@link TaskRepository#nextChange()}, after any wait for the write-behind buffer, since
+ * the buffer needs the counter to insert.
+ *
+ * <p>Claims, reaped leases and archived batches touch many tasks at once; instead of
+ * clearing the whole cache like the other batch writes, they put or evict exactly those
+ * tasks once the transaction commits, since workers claim continuously. A renewed lease is
+ * cached the same way.
+ *
+ * <p>When a {@link TaskWriteBehindQueue} is configured, {@link #create} hands the task to
+ * it instead of inserting it; the task is cached under its reserved id straight away, and
+ * its event is published by the queue once the row is written. Until then reads by id are
+ * served from the queue, and writes by id wait for the row.
+ */
 @Service
 @RequiredArgsConstructor
+@CacheConfig(cacheNames = TaskServiceImpl.CACHE)
+@Timed(value = TaskServiceImpl.TIMER, histogram = true)
 public class TaskServiceImpl implements TaskService {
 
+    static final String CACHE = "tasks";
+    static final String TIMER = "task.service";
+
     private final TaskRepository repository;
+    private final ArchivedTaskRepository archive;
+    private final TaskMetrics metrics;
+    private final TaskSearchIndex searchIndex;
+    private final ApplicationEventPublisher events;
+    private final ObjectProvider<TaskWriteBehindQueue> writeBehind;
+    private final CacheManager cacheManager;
 
     @Override
+    @Transactional
+    @CachePut(key = "#result.id")
     public Task create(String name, String description) {
-        return repository.save(new Task(name, description));
+        TaskWriteBehindQueue queue = writeBehind.getIfAvailable();
+        if (queue != null) {
+            return queue.enqueue(new Task(name, description));
+        }
+        repository.nextChange();
+        Task task = repository.save(new Task(name, description));
+        events.publishEvent(TaskEvent.created(task));
+        return task;
+    }
+
+    @Override
+    @Transactional
+    public List<Task> createAll(List<Task> tasks) {
+        repository.nextChange();
+        List<Task> saved = repository.saveAll(tasks);
+        saved.forEach(task -> events.publishEvent(TaskEvent.created(task)));
+        return saved;
     }
 
     @Override
     public List<Task> findAll() {
-        return repository.findAll();
+        List<Task> tasks = repository.findAll();
+        metrics.recordResultSize("findAll", tasks.size());
+        return tasks;
     }
 
     @Override
     public List<Task> findByStatus(TaskStatus status) {
-        return repository.findByStatus(status);
+        List<Task> tasks = repository.findByStatus(status);
+        metrics.recordResultSize("findByStatus", tasks.size());
+        return tasks;
+    }
+
+    @Override
+    public List<TaskProjection> findProjections(TaskStatus status, Set<TaskField> fields) {
+        List<TaskProjection> tasks = repository.findProjected(status, fields);
+        metrics.recordResultSize("findProjections", tasks.size());
+        return tasks;
+    }
+
+    @Override
+    public Map<TaskStatus, Long> countByStatus() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (TaskStatusCount count : repository.countByStatus()) {
+            counts.put(count.status(), count.total());
+        }
+        return counts;
+    }
+
+    @Override
+    public List<Task> findPage(Long after, int limit) {
+        List<Task> tasks = repository.findPage(cursor(after), limit);
+        metrics.recordResultSize("findPage", tasks.size());
+        return tasks;
+    }
+
+    @Override
+    public List<Task> findPageByStatus(TaskStatus status, Long after, int limit) {
+        List<Task> tasks = repository.findPageByStatus(status, cursor(after), limit);
+        metrics.recordResultSize("findPageByStatus", tasks.size());
+        return tasks;
+    }
+
+    @Override
+    public Stream<Task> streamAll() {
+        return repository.streamAll();
     }
 
     @Override
+    public Stream<Task> streamByStatus(TaskStatus status) {
+        return repository.streamByStatus(status);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        List<Task> tasks = repository.findAllById(searchIndex.search(query, limit)).stream()
+                .sorted(Comparator.comparing(Task::getId))
+                .toList();
+        metrics.recordResultSize("search", tasks.size());
+        return tasks;
+    }
+
+    /**
+     * Merges changed tasks and tombstones in {@code (changeNumber, id)} order. Both are
+     * read up to the last committed change, read first: every change up to it has
+     * committed, and every later one gets a higher number, so no page skips a change that
+     * commits while it is read.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskChanges findChangedSince(Long since, Long after, int limit) {
+        long fromChange = since == null ? 0L : since;
+        long afterId = after == null ? Long.MAX_VALUE : after;
+        long upTo = repository.lastChange();
+        List<Task> tasks = repository.findChangedSince(fromChange, afterId, upTo, limit);
+        List<TaskTombstone> tombstones = repository.findDeletedSince(fromChange, afterId, upTo, limit);
+
+        List<Task> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        long lastChange = fromChange;
+        long lastId = afterId;
+        int nextTask = 0;
+        int nextTombstone = 0;
+        while (changed.size() + deleted.size() < limit
+                && (nextTask < tasks.size() || nextTombstone < tombstones.size())) {
+            Task task = nextTask < tasks.size() ? tasks.get(nextTask) : null;
+            TaskTombstone tombstone = nextTombstone < tombstones.size() ? tombstones.get(nextTombstone) : null;
+            if (task != null && (tombstone == null || task.getChangeNumber() < tombstone.changeNumber()
+                    || task.getChangeNumber() == tombstone.changeNumber() && task.getId() < tombstone.taskId())) {
+                changed.add(task);
+                lastChange = task.getChangeNumber();
+                lastId = task.getId();
+                nextTask++;
+            } else {
+                deleted.add(tombstone.taskId());
+                lastChange = tombstone.changeNumber();
+                lastId = tombstone.taskId();
+                nextTombstone++;
+            }
+        }
+        metrics.recordResultSize("findChangedSince", changed.size());
+        return changed.size() + deleted.size() < limit ?
+                new TaskChanges(changed, deleted, Math.max(upTo, fromChange), null) :
+                new TaskChanges(changed, deleted, lastChange, lastId);
+    }
+
+    @Override
+    @Cacheable
     public Task findById(Long id) {
-        return repository.findById(id).orElseThrow(() -> new TaskNotFoundException(id));
+        return findPending(id)
+                .or(() -> repository.findById(id))
+                .orElseThrow(() -> new TaskNotFoundException(id));
+    }
+
+    /**
+     * Not cached: the cache holds whole tasks, and the point of a projection is not to read
+     * them.
+     */
+    @Override
+    public TaskProjection findProjectionById(Long id, Set<TaskField> fields) {
+        return findPending(id)
+                .map(task -> TaskProjection.of(task, fields))
+                .or(() -> repository.findProjectedById(id, fields))
+                .orElseThrow(() -> new TaskNotFoundException(id));
     }
 
     @Override
+    @Transactional
+    @CacheEvict(key = "#id")
     public void markAsDone(Long id) {
-        Task task = findById(id);
-        task.markAsDone();
-        repository.save(task);
+        awaitWritten(Set.of(id));
+        repository.nextChange();
+        if (repository.updateStatus(id, TaskStatus.DONE) == 0) {
+            throw new TaskNotFoundException(id);
+        }
+        events.publishEvent(TaskEvent.completed(id));
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(key = "#id")
+    public void markAsDone(Long id, long expectedVersion) {
+        awaitWritten(Set.of(id));
+        repository.nextChange();
+        if (repository.updateStatus(id, TaskStatus.DONE, expectedVersion) == 0) {
+            throw conflictOrNotFound(id);
+        }
+        events.publishEvent(TaskEvent.completed(id));
     }
 
     @Override
+    @Transactional
+    public Set<Long> markAllAsDone(Collection<Long> ids) {
+        awaitWritten(ids);
+        repository.nextChange();
+        Set<Long> found = new HashSet<>(repository.findExistingIds(Set.copyOf(ids)));
+        if (!found.isEmpty()) {
+            repository.updateStatus(found, TaskStatus.DONE);
+        }
+        afterCommit(cache -> found.forEach(cache::evict));
+        found.forEach(id -> events.publishEvent(TaskEvent.completed(id)));
+        return found;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(key = "#id")
     public void delete(Long id) {
-        if (!repository.existsById(id)) {
+        awaitWritten(Set.of(id));
+        repository.nextChange();
+        if (repository.removeById(id) == 0) {
             throw new TaskNotFoundException(id);
         }
-        repository.deleteById(id);
+        repository.addTombstone(id);
+        events.publishEvent(TaskEvent.deleted(id));
     }
 
     @Override
+    @Transactional
+    @CacheEvict(key = "#id")
+    public void delete(Long id, long expectedVersion) {
+        awaitWritten(Set.of(id));
+        repository.nextChange();
+        if (repository.removeById(id, expectedVersion) == 0) {
+            throw conflictOrNotFound(id);
+        }
+        repository.addTombstone(id);
+        events.publishEvent(TaskEvent.deleted(id));
+    }
+
+    @Override
+    @Transactional
+    public Set<Long> deleteAll(Collection<Long> ids) {
+        awaitWritten(ids);
+        repository.nextChange();
+        Set<Long> found = new HashSet<>(repository.findExistingIds(Set.copyOf(ids)));
+        if (!found.isEmpty()) {
+            repository.addTombstones(found);
+            repository.deleteByIdIn(found);
+        }
+        afterCommit(cache -> found.forEach(cache::evict));
+        found.forEach(id -> events.publishEvent(TaskEvent.deleted(id)));
+        return found;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(key = "#id")
     public void updateDescription(Long id, String description) {
-        Task task = findById(id);
-        task.updateDescription(description);
-        repository.save(task);
+        Task.validateDescription(description);
+        awaitWritten(Set.of(id));
+        repository.nextChange();
+        if (repository.updateDescription(id, description) == 0) {
+            throw new TaskNotFoundException(id);
+        }
+        events.publishEvent(TaskEvent.descriptionUpdated(id, description));
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(key = "#id")
+    public void updateDescription(Long id, String description, long expectedVersion) {
+        Task.validateDescription(description);
+        awaitWritten(Set.of(id));
+        repository.nextChange();
+        if (repository.updateDescription(id, description, expectedVersion) == 0) {
+            throw conflictOrNotFound(id);
+        }
+        events.publishEvent(TaskEvent.descriptionUpdated(id, description));
+    }
+
+    @Override
+    @Transactional
+    public List<Task> claim(String claimant, Duration leaseDuration, int max) {
+        repository.nextChange();
+        List<Task> tasks = repository.claim(claimant, LocalDateTime.now().plus(leaseDuration), max);
+        tasks.forEach(task -> events.publishEvent(TaskEvent.claimed(task.getId())));
+        afterCommit(cache -> tasks.forEach(task -> cache.put(task.getId(), task)));
+        metrics.recordResultSize("claim", tasks.size());
+        return tasks;
+    }
+
+    @Override
+    @Transactional
+    public Task renewLease(Long id, String claimant, Duration leaseDuration) {
+        repository.nextChange();
+        if (repository.renewLease(id, claimant, LocalDateTime.now().plus(leaseDuration)) == 0) {
+            throw repository.existsById(id) ?
+                    new TaskLeaseNotHeldException(id, claimant) :
+                    new TaskNotFoundException(id);
+        }
+        Task task = repository.findById(id).orElseThrow(() -> new TaskNotFoundException(id));
+        events.publishEvent(TaskEvent.leaseRenewed(id));
+        afterCommit(cache -> cache.put(id, task));
+        return task;
+    }
+
+    @Override
+    @Transactional
+    public Set<Long> releaseExpiredLeases(LocalDateTime now, int limit) {
+        repository.nextChange();
+        List<Long> ids = repository.releaseExpiredLeases(now, limit);
+        ids.forEach(id -> events.publishEvent(TaskEvent.leaseExpired(id)));
+        afterCommit(cache -> ids.forEach(cache::evict));
+        return Set.copyOf(ids);
+    }
+
+    @Override
+    @Transactional
+    public Set<Long> archive(LocalDateTime cutoff, int limit) {
+        repository.nextChange();
+        List<Long> ids = repository.lockArchivable(cutoff, limit);
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        repository.copyToArchive(ids);
+        repository.addTombstones(ids);
+        repository.deleteByIdIn(ids);
+        ids.forEach(id -> events.publishEvent(TaskEvent.archived(id)));
+        afterCommit(cache -> ids.forEach(cache::evict));
+        return Set.copyOf(ids);
+    }
+
+    @Override
+    public List<ArchivedTask> findArchivePage(Long after, int limit) {
+        List<ArchivedTask> tasks = archive.findPage(cursor(after), limit);
+        metrics.recordResultSize("findArchivePage", tasks.size());
+        return tasks;
+    }
+
+    @Override
+    @Transactional
+    public int purgeArchive(LocalDateTime cutoff, int limit) {
+        return archive.purge(cutoff, limit) + archive.purgeTombstones(cutoff, limit);
+    }
+
+    private Optional<Task> findPending(Long id) {
+        TaskWriteBehindQueue queue = writeBehind.getIfAvailable();
+        return queue == null ? Optional.empty() : queue.findPending(id);
+    }
+
+    /**
+     * Writes by id run single statements against the row, so a task still in the
+     * write-behind buffer has to reach the table first.
+     */
+    private void awaitWritten(Collection<Long> ids) {
+        TaskWriteBehindQueue queue = writeBehind.getIfAvailable();
+        if (queue != null) {
+            queue.awaitWritten(ids);
+        }
+    }
+
+    /**
+     * Changes the cache once the transaction commits, so a concurrent read cannot cache the
+     * rows as they were before it, nor see a change that is rolled back. Outside a
+     * transaction the change is applied straight away.
+     */
+    private void afterCommit(Consumer<Cache> change) {
+        Cache cache = cacheManager.getCache(CACHE);
+        if (cache == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.accept(cache);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.accept(cache);
+            }
+        });
+    }
+
+    /**
+     * Only reached when a conditional write touched no rows, so the extra lookup is off
+     * the happy path.
+     */
+    private RuntimeException conflictOrNotFound(Long id) {
+        return repository.existsById(id) ?
+                new TaskVersionMismatchException(id) :
+                new TaskNotFoundException(id);
+    }
+
+    private static long cursor(Long after) {
+        return after == null ? 0L : after;
     }
 }
@@ -0,0 +1,308 @@
+package ctambaoan.taskapi.service;
+
+import ctambaoan.taskapi.config.WriteBehindProperties;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskEvent;
+import ctambaoan.taskapi.exception.TaskQueueFullException;
+import ctambaoan.taskapi.repository.TaskRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.jdbc.core.JdbcAggregateOperations;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Write-behind buffer for task creation. {@link #enqueue} gives the task an id reserved
+ * from the sequence and returns immediately; a single background writer inserts buffered
+ * tasks in batches once {@code batchSize} tasks are waiting or {@code flushInterval} has
+ * passed. When the buffer is full, {@link #enqueue} waits up to {@code offerTimeout} and
+ * then fails with {@link TaskQueueFullException}.
+ *
+ * <p>Until its row exists a task is pending: {@link #findPending} serves reads of it, and
+ * {@link #awaitWritten} holds back writes to it, so a client can act on a task as soon as
+ * it is created. Each batch is inserted in one transaction, stamped {@code updated} at
+ * insert time, and {@link TaskEvent#created} is published once it commits. A failing
+ * batch is retried with exponential backoff for as long as the queue runs, so an
+ * acknowledged task is only lost if the process dies.
+ *
+ * <p>Stopping lets the writer finish its batch, then drains the buffer into the database
+ * before the data source shuts down. A batch that still cannot be written then is given
+ * up: its tasks are evicted from the task cache and counted in
+ * {@code task.write-behind.dropped}.
+ *
+ * <p>The caller gets its own copy of the task, so the writer never changes an instance
+ * that request threads may be reading from the cache.
+ */
+@Slf4j
+public class TaskWriteBehindQueue implements SmartLifecycle {
+
+    private static final int ATTEMPTS_WHEN_STOPPING = 3;
+    private static final Duration INITIAL_BACKOFF = Duration.ofMillis(100);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+    private final TaskRepository repository;
+    private final JdbcAggregateOperations aggregates;
+    private final TransactionOperations transactions;
+    private final ApplicationEventPublisher events;
+    private final CacheManager cacheManager;
+    private final TaskMetrics metrics;
+    private final WriteBehindProperties properties;
+    private final BlockingQueue<Task> queue;
+    private final Map<Long, Task> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantLock settleLock = new ReentrantLock();
+    private final Condition settled = settleLock.newCondition();
+
+    private final Object idLock = new Object();
+    private List<Long> idBlock = List.of();
+    private int nextIdIndex;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public TaskWriteBehindQueue(TaskRepository repository, JdbcAggregateOperations aggregates,
+            TransactionOperations transactions, ApplicationEventPublisher events,
+            CacheManager cacheManager, TaskMetrics metrics, WriteBehindProperties properties) {
+        this.repository = repository;
+        this.aggregates = aggregates;
+        this.transactions = transactions;
+        this.events = events;
+        this.cacheManager = cacheManager;
+        this.metrics = metrics;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.capacity());
+    }
+
+    /**
+     * Returns the task with its reserved id and the version its insert will give it.
+     */
+    public Task enqueue(Task task) {
+        long id = nextId();
+        Task created = reserved(task, id);
+        Task row = reserved(task, id);
+        pending.put(id, created);
+        try {
+            if (!queue.offer(row, properties.offerTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                pending.remove(id);
+                throw new TaskQueueFullException();
+            }
+        } catch (InterruptedException ex) {
+            pending.remove(id);
+            Thread.currentThread().interrupt();
+            throw new TaskQueueFullException();
+        }
+        return created;
+    }
+
+    /**
+     * The task as created, while its row has not been written yet.
+     */
+    public Optional<Task> findPending(long id) {
+        return Optional.ofNullable(pending.get(id));
+    }
+
+    /**
+     * Waits until none of {@code ids} is pending any more, so that a write to them finds
+     * their rows. Fails with {@link TaskQueueFullException} when that takes longer than
+     * {@code writeTimeout}.
+     */
+    public void awaitWritten(Collection<Long> ids) {
+        if (ids.stream().noneMatch(pending::containsKey)) {
+            return;
+        }
+        long remaining = properties.writeTimeout().toNanos();
+        settleLock.lock();
+        try {
+            while (ids.stream().anyMatch(pending::containsKey)) {
+                if (remaining <= 0) {
+                    throw new TaskQueueFullException();
+                }
+                remaining = settled.awaitNanos(remaining);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TaskQueueFullException();
+        } finally {
+            settleLock.unlock();
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("task-write-behind")
+                .daemon()
+                .start(this::writeLoop);
+    }
+
+    /**
+     * Wakes the writer without interrupting it: an interrupt inside JDBC can close the
+     * database's file channel.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<Task> batch = new ArrayList<>(properties.batchSize());
+        while (queue.drainTo(batch, properties.batchSize()) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server has stopped accepting requests, so no create can slip in
+     * behind the final flush, and before the data source is closed.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<Task> batch = new ArrayList<>(properties.batchSize());
+        while (running) {
+            fill(batch);
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void fill(List<Task> batch) {
+        try {
+            Task first = queue.poll(properties.flushInterval().toNanos(), TimeUnit.NANOSECONDS);
+            if (first == null) {
+                return;
+            }
+            batch.add(first);
+            long deadline = System.nanoTime() + properties.flushInterval().toNanos();
+            while (batch.size() < properties.batchSize()) {
+                if (queue.drainTo(batch, properties.batchSize() - batch.size()) > 0) {
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                Task next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        } catch (InterruptedException ex) {
+            // nothing interrupts the writer on purpose; write what has been collected
+        }
+    }
+
+    /**
+     * Each attempt is one transaction, so a failed one leaves no rows behind for the retry
+     * to collide with.
+     */
+    private void write(List<Task> batch) {
+        long backoff = INITIAL_BACKOFF.toNanos();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactions.executeWithoutResult(status -> {
+                    repository.nextChange();
+                    LocalDateTime now = LocalDateTime.now();
+                    List<Task> rows = batch.stream().map(task -> stamped(task, now)).toList();
+                    aggregates.insertAll(rows);
+                    rows.forEach(row -> events.publishEvent(TaskEvent.created(row)));
+                });
+                settle(batch);
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Write-behind insert of {} tasks failed (attempt {})", batch.size(), attempt,
+                        ex);
+            }
+            if (!running && attempt >= ATTEMPTS_WHEN_STOPPING) {
+                drop(batch);
+                return;
+            }
+            LockSupport.parkNanos(backoff);
+            backoff = Math.min(backoff * 2, MAX_BACKOFF.toNanos());
+        }
+    }
+
+    /**
+     * The cached task still carries the enqueue-time {@code updated}, so it is evicted in
+     * favour of the row.
+     */
+    private void settle(List<Task> batch) {
+        Cache cache = cacheManager.getCache(TaskServiceImpl.CACHE);
+        for (Task task : batch) {
+            if (cache != null) {
+                cache.evict(task.getId());
+            }
+            pending.remove(task.getId());
+        }
+        settleLock.lock();
+        try {
+            settled.signalAll();
+        } finally {
+            settleLock.unlock();
+        }
+    }
+
+    private void drop(List<Task> batch) {
+        settle(batch);
+        metrics.recordWriteBehindDropped(batch.size());
+        log.error("Dropped {} buffered tasks with ids {}", batch.size(),
+                batch.stream().map(Task::getId).toList());
+    }
+
+    private static Task reserved(Task task, long id) {
+        return new Task(id, task.getName(), task.getDescription(), task.getStatus(),
+                task.getCreated(), task.getUpdated(), task.getClaimedBy(), task.getLeaseExpires(), 0L,
+                task.getChangeNumber());
+    }
+
+    private static Task stamped(Task task, LocalDateTime updated) {
+        return new Task(task.getId(), task.getName(), task.getDescription(), task.getStatus(),
+                task.getCreated(), updated, task.getClaimedBy(), task.getLeaseExpires(), task.getVersion(),
+                task.getChangeNumber());
+    }
+
+    private long nextId() {
+        synchronized (idLock) {
+            if (nextIdIndex == idBlock.size()) {
+                idBlock = repository.reserveIds(properties.idBlockSize());
+                nextIdIndex = 0;
+            }
+            return idBlock.get(nextIdIndex++);
+        }
+    }
+}
@@ -1,8 +1,56 @@
+CREATE SEQUENCE IF NOT EXISTS task_id_seq;
+
+-- Numbers every change for delta sync. A writing transaction first takes a number by
+-- updating this single row, whose lock is held until commit, so numbers follow commit order;
+-- the rows it writes default to that number.
+CREATE TABLE IF NOT EXISTS task_change_counter
+(
+    id          INT    PRIMARY KEY,
+    last_change BIGINT NOT NULL
+);
+
+INSERT INTO task_change_counter (id, last_change)
+SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM task_change_counter);
+
 CREATE TABLE IF NOT EXISTS task
 (
-    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id            BIGINT       DEFAULT NEXT VALUE FOR task_id_seq PRIMARY KEY,
+    name          VARCHAR(50)  NOT NULL,
+    description   TEXT,
+    status        VARCHAR(20)  NOT NULL,
+    created       TIMESTAMP    NOT NULL,
+    updated       TIMESTAMP    NOT NULL,
+    claimed_by    VARCHAR(100),
+    lease_expires TIMESTAMP,
+    version       BIGINT       NOT NULL DEFAULT 0,
+    change_number BIGINT       NOT NULL DEFAULT (SELECT last_change FROM task_change_counter)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_status_created_id ON task (status, created, id);
+CREATE INDEX IF NOT EXISTS idx_task_change_number_id ON task (change_number, id);
+CREATE INDEX IF NOT EXISTS idx_task_status_updated ON task (status, updated);
+CREATE INDEX IF NOT EXISTS idx_task_status_lease_expires ON task (status, lease_expires);
+
+CREATE TABLE IF NOT EXISTS task_tombstone
+(
+    task_id       BIGINT    PRIMARY KEY,
+    deleted       TIMESTAMP NOT NULL,
+    change_number BIGINT    NOT NULL DEFAULT (SELECT last_change FROM task_change_counter)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_tombstone_deleted ON task_tombstone (deleted);
+CREATE INDEX IF NOT EXISTS idx_task_tombstone_change_number_task_id ON task_tombstone (change_number, task_id);
+
+CREATE TABLE IF NOT EXISTS task_archive
+(
+    id          BIGINT      PRIMARY KEY,
     name        VARCHAR(50) NOT NULL,
     description TEXT,
     status      VARCHAR(20) NOT NULL,
-    created     TIMESTAMP   NOT NULL
-);
\ No newline at end of file
+    created     TIMESTAMP   NOT NULL,
+    updated     TIMESTAMP   NOT NULL,
+    version     BIGINT      NOT NULL,
+    archived    TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_archive_archived ON task_archive (archived);
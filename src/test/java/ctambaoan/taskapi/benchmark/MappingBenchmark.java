@@ -0,0 +1,49 @@
+package ctambaoan.taskapi.benchmark;
+
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.dto.TaskResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of building a {@link Task} (including name validation) and of mapping it to a
+ * {@link TaskResponse}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MappingBenchmark {
+
+    private String name;
+    private String description;
+    private Task task;
+
+    @Setup
+    public void setup() {
+        name = "Buy groceries";
+        description = "Milk, eggs, bread";
+        task = new Task(name, description);
+    }
+
+    @Benchmark
+    public Task createTask() {
+        return new Task(name, description);
+    }
+
+    @Benchmark
+    public TaskResponse mapTask() {
+        return TaskResponse.map(task);
+    }
+}
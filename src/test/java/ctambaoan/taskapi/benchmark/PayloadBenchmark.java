@@ -0,0 +1,83 @@
+package ctambaoan.taskapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.dto.TaskColumns;
+import ctambaoan.taskapi.dto.TaskEpochResponse;
+import ctambaoan.taskapi.dto.TaskResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Serialization CPU of each list representation of {@code GET /api/tasks} for 10k tasks,
+ * with and without gzip. Payload sizes are printed once per trial, since JMH only reports
+ * times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PayloadBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    @Param({"json", "json-epoch", "columnar", "cbor"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private Object body;
+
+    @Setup
+    public void setup() throws IOException {
+        List<Task> tasks = IntStream.range(0, SIZE)
+                .mapToObj(i -> {
+                    Task task = new Task("Task " + i, "Description of task number " + i);
+                    task.assignId(i + 1L);
+                    return task;
+                })
+                .toList();
+        mapper = format.equals("cbor") ?
+                Jackson2ObjectMapperBuilder.cbor().build() :
+                Jackson2ObjectMapperBuilder.json().build();
+        body = switch (format) {
+            case "json", "cbor" -> tasks.stream().map(TaskResponse::map).toList();
+            case "json-epoch" -> tasks.stream().map(TaskEpochResponse::map).toList();
+            case "columnar" -> TaskColumns.map(tasks);
+            default -> throw new IllegalArgumentException(format);
+        };
+        System.out.printf("%n%s: %d bytes, %d bytes gzipped%n", format,
+                serialize().length, serializeGzipped().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] serializeGzipped() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            mapper.writeValue(gzip, body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,106 @@
+package ctambaoan.taskapi.benchmark;
+
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.repository.memory.DurableTaskStore;
+import ctambaoan.taskapi.repository.memory.FsyncPolicy;
+import ctambaoan.taskapi.repository.memory.InMemoryTaskRepository;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Startup recovery of the durable in-memory engine with {@link #rows} tasks, from a
+ * snapshot alone, from a log alone, and from a snapshot followed by a log tail of
+ * {@value #TAIL_UPDATES} updates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class RecoveryBenchmark {
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int TAIL_UPDATES = 100_000;
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"snapshot", "log", "snapshot-and-tail"})
+    private String source;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("task-recovery");
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(rows);
+        DurableTaskStore store = new DurableTaskStore(repository, directory, FsyncPolicy.NEVER,
+                Duration.ofMillis(100));
+        store.open();
+        for (int loaded = 0; loaded < rows; loaded += LOAD_BATCH_SIZE) {
+            int offset = loaded;
+            repository.saveAll(IntStream.range(0, Math.min(LOAD_BATCH_SIZE, rows - loaded))
+                    .mapToObj(i -> new Task("Task " + (offset + i), "Description of task " + (offset + i)))
+                    .toList());
+        }
+        if (!source.equals("log")) {
+            store.snapshot();
+        }
+        if (source.equals("snapshot-and-tail")) {
+            for (int i = 0; i < TAIL_UPDATES; i++) {
+                repository.updateDescription(ThreadLocalRandom.current().nextLong(1, rows + 1), "Updated " + i);
+            }
+        }
+        store.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            long bytes = files.mapToLong(file -> file.toFile().length()).sum();
+            System.out.printf("%n%s: %,d bytes on disk%n", source, bytes);
+        }
+    }
+
+    /**
+     * Collects the previous iteration's million tasks, so that the measurement does not
+     * include collecting them.
+     */
+    @Setup(Level.Iteration)
+    public void collectGarbage() {
+        System.gc();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public InMemoryTaskRepository recover() {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(rows);
+        new DurableTaskStore(repository, directory, FsyncPolicy.NEVER, Duration.ofMillis(100)).recover();
+        return repository;
+    }
+}
@@ -0,0 +1,78 @@
+package ctambaoan.taskapi.benchmark;
+
+import ctambaoan.taskapi.domain.TaskEvent;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.service.TaskSearchIndex;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link TaskSearchIndex} query latency over {@link #tasks} indexed tasks whose text draws
+ * from a fixed vocabulary, so common words have postings of hundreds of thousands of ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SearchIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "buy", "fix", "call", "write", "review", "plan", "clean", "book", "pay", "send",
+            "report", "invoice", "car", "bike", "kitchen", "garden", "meeting", "budget",
+            "release", "customer", "doctor", "groceries", "ticket", "server", "backup"};
+    private static final int LIMIT = 50;
+
+    @Param({"1000000"})
+    private int tasks;
+
+    private TaskSearchIndex index;
+
+    @Setup
+    public void setup() {
+        index = new TaskSearchIndex(null);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long id = 1; id <= tasks; id++) {
+            String name = word(random) + " " + word(random) + " " + id;
+            String description = word(random) + " " + word(random) + " " + word(random);
+            index.on(new TaskEvent(TaskEvent.Type.CREATED, id, name, description, TaskStatus.TODO));
+        }
+    }
+
+    @Benchmark
+    public List<Long> singleTerm() {
+        return index.search("invoice", LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> twoTerms() {
+        return index.search("fix bike", LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> rareTermAndCommonTerm() {
+        return index.search("424242 buy", LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> prefixTerm() {
+        return index.search("fix b*", LIMIT);
+    }
+
+    private static String word(ThreadLocalRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,64 @@
+package ctambaoan.taskapi.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.dto.TaskResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Cost of turning a list of tasks into the JSON body of {@code GET /api/tasks}, with an
+ * {@link ObjectMapper} configured the way Spring Boot configures the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializationBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Task> tasks;
+    private List<TaskResponse> responses;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        tasks = IntStream.range(0, size)
+                .mapToObj(i -> new Task("Task " + i, "Description of task number " + i))
+                .toList();
+        responses = tasks.stream()
+                .map(TaskResponse::map)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeTasks() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tasks.stream()
+                .map(TaskResponse::map)
+                .toList());
+    }
+}
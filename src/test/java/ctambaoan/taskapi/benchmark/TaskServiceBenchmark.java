@@ -0,0 +1,122 @@
+package ctambaoan.taskapi.benchmark;
+
+import ctambaoan.taskapi.TaskApiApplication;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.service.TaskService;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * {@link TaskService} read and write paths against each storage {@link #engine}, preloaded
+ * with {@link #rows} tasks: the embedded H2 database, or the in-memory engine of the
+ * {@code memory} profile. The id cache is disabled so reads measure the storage path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaskServiceBenchmark {
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"jdbc", "memory"})
+    private String engine;
+
+    private ConfigurableApplicationContext context;
+    private TaskService service;
+    private long minId;
+    private long maxId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(TaskApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(engine.equals("memory") ? new String[] {"memory"} : new String[0])
+                .properties(
+                        "task-api.memory.initial-capacity=" + rows,
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + rows + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.cache.type=none",
+                        "logging.level.root=WARN")
+                .run();
+        service = context.getBean(TaskService.class);
+        minId = Long.MAX_VALUE;
+        for (int loaded = 0; loaded < rows; loaded += LOAD_BATCH_SIZE) {
+            int offset = loaded;
+            List<Task> saved = service.createAll(IntStream.range(0, Math.min(LOAD_BATCH_SIZE, rows - loaded))
+                    .mapToObj(i -> new Task("Task " + (offset + i), "Description of task " + (offset + i)))
+                    .toList());
+            minId = Math.min(minId, saved.getFirst().getId());
+            maxId = Math.max(maxId, saved.getLast().getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Task create() {
+        return service.create("Benchmark task", "Created by TaskServiceBenchmark");
+    }
+
+    @Benchmark
+    public Task findById() {
+        return service.findById(randomId());
+    }
+
+    @Benchmark
+    public List<Task> findPage() {
+        return service.findPage(randomId(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Task> findPageByStatus() {
+        return service.findPageByStatus(TaskStatus.TODO, randomId(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Map<TaskStatus, Long> countByStatus() {
+        return service.countByStatus();
+    }
+
+    @Benchmark
+    public void updateDescription() {
+        service.updateDescription(randomId(), "Updated by TaskServiceBenchmark");
+    }
+
+    @Benchmark
+    public void markAsDone() {
+        service.markAsDone(randomId());
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+    }
+}
@@ -0,0 +1,65 @@
+package ctambaoan.taskapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASELINE = Duration.ofMillis(10).toNanos();
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            new LoadSheddingProperties(true, 10, 2, 100, 2.0));
+
+    @Test
+    void rejectsBeyondTheLimitUntilReleased() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(BASELINE);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void growsWhileLatencyStaysWithinTolerance() {
+        runSaturated(100, BASELINE);
+        runSaturated(100, BASELINE * 3 / 2);
+
+        assertThat(limiter.limit()).isEqualTo(100);
+    }
+
+    @Test
+    void shrinksWhenLatencyClimbs() {
+        runSaturated(100, BASELINE);
+
+        runSaturated(100, BASELINE * 10);
+
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(BASELINE);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    private void runSaturated(int requests, long latencyNanos) {
+        for (int i = 0; i < requests; i++) {
+            while (limiter.tryAcquire()) {
+                // fill every slot
+            }
+            int inFlight = limiter.inFlight();
+            for (int j = 0; j < inFlight; j++) {
+                limiter.release(latencyNanos);
+            }
+        }
+    }
+}
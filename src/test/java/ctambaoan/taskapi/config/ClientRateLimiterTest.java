@@ -0,0 +1,57 @@
+package ctambaoan.taskapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ctambaoan.taskapi.config.ClientRateLimiter.Tier;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final ClientRateLimiter limiter = new ClientRateLimiter(
+            new RateLimitProperties(true, null, Set.of(), 10, 3, 1, 2, 1000, Duration.ofMinutes(1)),
+            now::get);
+
+    @Test
+    void admitsBurstThenRejectsUntilRefilled() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("a", Tier.CHEAP)).isZero();
+        }
+
+        assertThat(limiter.tryAcquire("a", Tier.CHEAP)).isEqualTo(Duration.ofMillis(100));
+
+        now.addAndGet(Duration.ofMillis(100).toNanos());
+        assertThat(limiter.tryAcquire("a", Tier.CHEAP)).isZero();
+        assertThat(limiter.tryAcquire("a", Tier.CHEAP)).isPositive();
+    }
+
+    @Test
+    void keepsSeparateBudgetsPerClientAndTier() {
+        assertThat(limiter.tryAcquire("a", Tier.EXPENSIVE)).isZero();
+        assertThat(limiter.tryAcquire("a", Tier.EXPENSIVE)).isZero();
+
+        assertThat(limiter.tryAcquire("a", Tier.EXPENSIVE)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(limiter.tryAcquire("a", Tier.CHEAP)).isZero();
+        assertThat(limiter.tryAcquire("b", Tier.EXPENSIVE)).isZero();
+    }
+
+    @Test
+    void admitsExactlyTheBurstUnderContention() {
+        AtomicInteger admitted = new AtomicInteger();
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            IntStream.range(0, 1000).forEach(i -> executor.submit(() -> {
+                if (limiter.tryAcquire("a", Tier.CHEAP).isZero()) {
+                    admitted.incrementAndGet();
+                }
+            }));
+        }
+
+        assertThat(admitted).hasValue(3);
+    }
+}
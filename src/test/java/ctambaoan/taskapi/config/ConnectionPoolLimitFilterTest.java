@@ -0,0 +1,94 @@
+package ctambaoan.taskapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConnectionPoolLimitFilterTest {
+
+    private final ConnectionPoolLimitFilter filter =
+            new ConnectionPoolLimitFilter(1, Duration.ofMillis(50));
+
+    @Test
+    void releasesPermitAfterRequestCompletes() throws Exception {
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (request, response) -> assertThat(filter.availablePermits()).isZero());
+
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotHoldPermitForEventStream() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/events"),
+                new MockHttpServletResponse(),
+                (request, response) -> assertThat(filter.availablePermits()).isEqualTo(1));
+    }
+
+    @Test
+    void doesNotHoldPermitForAsyncApi() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/async/tasks"),
+                new MockHttpServletResponse(),
+                (request, response) -> assertThat(filter.availablePermits()).isEqualTo(1));
+    }
+
+    @Test
+    void rejectsWith503WhenNoPermitIsAvailable() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> holder = executor.submit(() -> {
+                filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            entered.countDown();
+                            await(release);
+                        });
+                return null;
+            });
+            entered.await();
+
+            MockHttpServletResponse rejected = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest(), rejected,
+                    (request, response) -> {
+                    });
+
+            assertThat(rejected.getStatus()).isEqualTo(503);
+            assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+            release.countDown();
+            holder.get();
+        }
+    }
+
+    @Test
+    void holdsPermitUntilAsyncRequestCompletes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+        assertThat(filter.availablePermits()).isZero();
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onComplete(new AsyncEvent(asyncContext));
+        }
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
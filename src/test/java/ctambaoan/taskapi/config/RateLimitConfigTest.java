@@ -0,0 +1,73 @@
+package ctambaoan.taskapi.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ctambaoan.taskapi.controller.TaskController;
+import ctambaoan.taskapi.controller.TaskListResponseCache;
+import ctambaoan.taskapi.service.TaskIdempotencyStore;
+import ctambaoan.taskapi.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+@WebMvcTest(value = TaskController.class, properties = {
+        "task-api.rate-limit.enabled=true",
+        "task-api.rate-limit.client-id-header=X-Client-Id",
+        "task-api.rate-limit.trusted-proxies=127.0.0.1",
+        "task-api.rate-limit.expensive-rate=0.1",
+        "task-api.rate-limit.expensive-burst=1"
+})
+@Import({RateLimitConfig.class, TaskIdempotencyStore.class, TaskListResponseCache.class})
+@EnableConfigurationProperties({IdempotencyProperties.class, TaskQueueProperties.class,
+        TaskListCacheProperties.class})
+class RateLimitConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TaskService service;
+
+    @Test
+    void rejectsExpensiveRequestsBeyondTheClientsBudgetWith429() throws Exception {
+        mockMvc.perform(get("/api/tasks").header("X-Client-Id", "greedy"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tasks").header("X-Client-Id", "greedy"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        mockMvc.perform(get("/api/tasks/stats").header("X-Client-Id", "greedy"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks").header("X-Client-Id", "polite"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void ignoresTheClientIdFromAnUntrustedAddress() throws Exception {
+        mockMvc.perform(get("/api/tasks").header("X-Client-Id", "first")
+                        .with(remoteAddress("203.0.113.7")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tasks").header("X-Client-Id", "second")
+                        .with(remoteAddress("203.0.113.7")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
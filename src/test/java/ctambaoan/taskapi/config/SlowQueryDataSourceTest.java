@@ -0,0 +1,97 @@
+package ctambaoan.taskapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+@ExtendWith(OutputCaptureExtension.class)
+class SlowQueryDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private JdbcDataSource h2;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slow-query;DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS item (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+            statement.execute("DELETE FROM item");
+        }
+    }
+
+    @Test
+    void reportsStatementsOverTheThresholdWithTheirBindShape(CapturedOutput output) throws SQLException {
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(h2, Duration.ZERO, registry);
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO item (id, name) VALUES (?, ?)")) {
+            insert.setLong(1, 1);
+            insert.setString(2, "secret value");
+            insert.executeUpdate();
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT name FROM item WHERE id = ? AND name = ?")) {
+                select.setObject(1, 1L);
+                select.setNull(2, java.sql.Types.VARCHAR);
+                try (ResultSet rows = select.executeQuery()) {
+                    assertThat(rows.next()).isFalse();
+                }
+            }
+        }
+
+        assertThat(registry.get(SlowQueryDataSource.METRIC).tag("kind", "insert").timer().count()).isEqualTo(1);
+        assertThat(registry.get(SlowQueryDataSource.METRIC).tag("kind", "select").timer().count()).isEqualTo(1);
+        assertThat(output).contains("INSERT INTO item (id, name) VALUES (?, ?) binds=[Long, String]");
+        assertThat(output).contains("binds=[Long, null]");
+        assertThat(output).doesNotContain("secret value");
+    }
+
+    @Test
+    void countsTheRowsOfABatch(CapturedOutput output) throws SQLException {
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(h2, Duration.ZERO, registry);
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO item (id, name) VALUES (?, ?)")) {
+            for (long id = 1; id <= 3; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "item " + id);
+                insert.addBatch();
+            }
+            assertThat(insert.executeBatch()).hasSize(3);
+        }
+
+        assertThat(output).contains("binds=[Long, String] batch=3");
+    }
+
+    @Test
+    void ignoresStatementsUnderTheThreshold() throws SQLException {
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(h2, Duration.ofMinutes(1), registry);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT COUNT(*) FROM item").close();
+        }
+
+        assertThat(registry.find(SlowQueryDataSource.METRIC).timers()).isEmpty();
+    }
+
+    @Test
+    void unwrapsToTheTargetDataSource() throws SQLException {
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(h2, Duration.ZERO, registry);
+
+        assertThat(dataSource.unwrap(JdbcDataSource.class)).isSameAs(h2);
+    }
+}
@@ -0,0 +1,37 @@
+package ctambaoan.taskapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskEvent;
+import ctambaoan.taskapi.dto.TaskResponse;
+import ctambaoan.taskapi.repository.TaskStatusCount;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+class TaskRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void registersEntitiesForSpringDataJdbc() throws NoSuchMethodException {
+        new TaskRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(Task.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onConstructor(
+                TaskStatusCount.class.getDeclaredConstructors()[0])).accepts(hints);
+    }
+
+    @Test
+    void registersResponseBodiesForJackson() throws NoSuchMethodException {
+        new TaskRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(TaskResponse.class.getMethod("claimedBy")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(TaskEvent.class.getMethod("taskId")))
+                .accepts(hints);
+    }
+}
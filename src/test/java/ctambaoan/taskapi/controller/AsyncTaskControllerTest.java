@@ -0,0 +1,154 @@
+package ctambaoan.taskapi.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ctambaoan.taskapi.config.AsyncTaskProperties;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.exception.ServiceOverloadedException;
+import ctambaoan.taskapi.exception.TaskNotFoundException;
+import ctambaoan.taskapi.exception.TaskRequestTimeoutException;
+import ctambaoan.taskapi.service.AsyncTaskService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@WebMvcTest(value = AsyncTaskController.class, properties = "task-api.async.max-timeout=200ms")
+@EnableConfigurationProperties(AsyncTaskProperties.class)
+class AsyncTaskControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AsyncTaskService service;
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    void findByIdShouldAnswerWhenTheWorkCompletes() throws Exception {
+        Task task = new Task("async", "");
+        ReflectionTestUtils.setField(task, "id", 1L);
+        ReflectionTestUtils.setField(task, "version", 3L);
+        CompletableFuture<Task> work = new CompletableFuture<>();
+        when(service.findById(1L, DEFAULT_TIMEOUT)).thenReturn(work);
+
+        MvcResult result = mockMvc.perform(get("/api/async/tasks/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        work.complete(task);
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.name").value("async"));
+    }
+
+    @Test
+    void createShouldReturn201() throws Exception {
+        when(service.create("async", "", DEFAULT_TIMEOUT)).thenReturn(CompletableFuture.completedFuture(new Task("async", "")));
+
+        MvcResult result = mockMvc.perform(post("/api/async/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"async\",\"description\":\"\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void findPageShouldReturnAPage() throws Exception {
+        Task task = new Task("async", "");
+        ReflectionTestUtils.setField(task, "id", 7L);
+        when(service.findPage(null, 5L, 1, DEFAULT_TIMEOUT)).thenReturn(CompletableFuture.completedFuture(List.of(task)));
+
+        MvcResult result = mockMvc.perform(get("/api/async/tasks?after=5&limit=1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[0].id").value(7))
+                .andExpect(jsonPath("$.nextCursor").value(7));
+    }
+
+    @Test
+    void failuresShouldBeHandledLikeSynchronousOnes() throws Exception {
+        when(service.findById(1L, DEFAULT_TIMEOUT)).thenReturn(CompletableFuture.failedFuture(new TaskNotFoundException(1L)));
+        when(service.findById(2L, DEFAULT_TIMEOUT)).thenReturn(CompletableFuture.failedFuture(new ServiceOverloadedException()));
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/async/tasks/1")).andReturn()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/async/tasks/2")).andReturn()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void timeoutBeforeTheWorkStartedShouldReturn503() throws Exception {
+        Duration timeout = Duration.ofMillis(20);
+        when(service.findById(1L, timeout))
+                .thenReturn(CompletableFuture.failedFuture(new TaskRequestTimeoutException(timeout, false)));
+
+        MvcResult result = mockMvc.perform(get("/api/async/tasks/1?timeout=20"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.detail").value("The request did not complete within 20 ms"));
+    }
+
+    @Test
+    void timeoutAfterTheWorkStartedShouldReturn504() throws Exception {
+        Duration timeout = Duration.ofMillis(20);
+        when(service.findById(1L, timeout))
+                .thenReturn(CompletableFuture.failedFuture(new TaskRequestTimeoutException(timeout, true)));
+
+        MvcResult result = mockMvc.perform(get("/api/async/tasks/1?timeout=20"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void nonPositiveTimeoutShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/api/async/tasks/1?timeout=0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void requestedTimeoutShouldBeCappedAtTheMaximum() throws Exception {
+        when(service.findById(1L, Duration.ofMillis(200)))
+                .thenReturn(CompletableFuture.completedFuture(new Task("async", "")));
+
+        MvcResult result = mockMvc.perform(get("/api/async/tasks/1?timeout=3600000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+}
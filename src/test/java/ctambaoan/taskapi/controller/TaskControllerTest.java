@@ -1,32 +1,73 @@
 package ctambaoan.taskapi.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ctambaoan.taskapi.config.IdempotencyProperties;
+import ctambaoan.taskapi.config.TaskListCacheProperties;
+import ctambaoan.taskapi.config.TaskQueueProperties;
 import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskChanges;
+import ctambaoan.taskapi.domain.TaskEvent;
+import ctambaoan.taskapi.domain.TaskField;
+import ctambaoan.taskapi.domain.TaskProjection;
 import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.dto.BatchCreateTaskRequest;
 import ctambaoan.taskapi.dto.CreateTaskRequest;
+import ctambaoan.taskapi.dto.LeaseRequest;
+import ctambaoan.taskapi.dto.TaskColumns;
+import ctambaoan.taskapi.dto.TaskIdsRequest;
 import ctambaoan.taskapi.dto.UpdateDescriptionRequest;
+import ctambaoan.taskapi.exception.TaskLeaseNotHeldException;
 import ctambaoan.taskapi.exception.TaskNotFoundException;
+import ctambaoan.taskapi.exception.TaskVersionMismatchException;
+import ctambaoan.taskapi.service.TaskIdempotencyStore;
 import ctambaoan.taskapi.service.TaskService;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(TaskController.class)
+@Import({TaskIdempotencyStore.class, TaskListResponseCache.class})
+@EnableConfigurationProperties({IdempotencyProperties.class, TaskQueueProperties.class,
+        TaskListCacheProperties.class})
 class TaskControllerTest {
 
     @Autowired
@@ -38,6 +79,14 @@ class TaskControllerTest {
     @MockitoBean
     private TaskService service;
 
+    @Autowired
+    private TaskListResponseCache listCache;
+
+    @BeforeEach
+    void clearListCache() {
+        listCache.invalidate();
+    }
+
     @Test
     void createTaskShouldReturn400WhenValidationFailed() throws Exception {
         String request = objectMapper.writeValueAsString(new CreateTaskRequest("", "test"));
@@ -63,6 +112,124 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.status").value("TODO"));
     }
 
+    @Test
+    void createWithIdempotencyKeyShouldReplayFirstResponse() throws Exception {
+        Task task = new Task("test1", "");
+        ReflectionTestUtils.setField(task, "id", 7L);
+        String request = objectMapper.writeValueAsString(new CreateTaskRequest("test1", ""));
+        when(service.create("test1", "")).thenReturn(task);
+
+        mockMvc.perform(post("/api/tasks")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"));
+        mockMvc.perform(post("/api/tasks")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(7));
+
+        verify(service, times(1)).create("test1", "");
+    }
+
+    @Test
+    void createWithReusedIdempotencyKeyShouldReturn422() throws Exception {
+        when(service.create(any(String.class), any(String.class))).thenReturn(new Task("test1", ""));
+        mockMvc.perform(post("/api/tasks")
+                .header("Idempotency-Key", "reused")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateTaskRequest("test1", ""))));
+
+        mockMvc.perform(post("/api/tasks")
+                        .header("Idempotency-Key", "reused")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateTaskRequest("test2", ""))))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void createWithOverlongIdempotencyKeyShouldReturn400() throws Exception {
+        mockMvc.perform(post("/api/tasks")
+                        .header("Idempotency-Key", "k".repeat(256))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateTaskRequest("test1", ""))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createAllShouldReturn201WithCreatedTasks() throws Exception {
+        String request = objectMapper.writeValueAsString(new BatchCreateTaskRequest(List.of(
+                new CreateTaskRequest("task1", ""),
+                new CreateTaskRequest("task2", ""))));
+        when(service.createAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        mockMvc.perform(post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].name").value("task2"));
+    }
+
+    @Test
+    void createAllShouldReturn400WhenAnyTaskIsInvalid() throws Exception {
+        String request = objectMapper.writeValueAsString(new BatchCreateTaskRequest(List.of(
+                new CreateTaskRequest("task1", ""),
+                new CreateTaskRequest("", ""))));
+
+        mockMvc.perform(post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findAllWithFieldsShouldWriteOnlyThoseFields() throws Exception {
+        TaskProjection task = new TaskProjection(EnumSet.of(TaskField.ID, TaskField.STATUS),
+                1L, null, null, TaskStatus.TODO, null, null, null, null, 0L);
+        when(service.findProjections(TaskStatus.TODO, EnumSet.of(TaskField.ID, TaskField.STATUS)))
+                .thenReturn(List.of(task));
+
+        mockMvc.perform(get("/api/tasks").param("status", "TODO").param("fields", "status,id"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":1,\"status\":\"TODO\"}]", true));
+    }
+
+    @Test
+    void findByIdWithFieldsShouldWriteRequestedNullsAndVersionETag() throws Exception {
+        TaskProjection task = new TaskProjection(EnumSet.of(TaskField.NAME, TaskField.DESCRIPTION),
+                null, "name", null, null, null, null, null, null, 4L);
+        when(service.findProjectionById(1L, EnumSet.of(TaskField.NAME, TaskField.DESCRIPTION)))
+                .thenReturn(task);
+
+        mockMvc.perform(get("/api/tasks/{id}", 1L).param("fields", "name,description"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(content().json("{\"name\":\"name\",\"description\":null}", true));
+    }
+
+    @Test
+    void findByIdWithLeaseFieldsShouldWriteThemByPropertyName() throws Exception {
+        TaskProjection task = new TaskProjection(EnumSet.of(TaskField.CLAIMED_BY, TaskField.LEASE_EXPIRES),
+                null, null, null, null, null, null, "worker", null, 2L);
+        when(service.findProjectionById(1L, EnumSet.of(TaskField.CLAIMED_BY, TaskField.LEASE_EXPIRES)))
+                .thenReturn(task);
+
+        mockMvc.perform(get("/api/tasks/{id}", 1L).param("fields", "claimedBy,leaseExpires"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"claimedBy\":\"worker\",\"leaseExpires\":null}", true));
+    }
+
+    @Test
+    void findAllWithUnknownFieldShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("fields", "id,owner"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void findTaskByIdShouldReturn404WhenTaskNotFound() throws Exception {
         when(service.findById(1L)).thenThrow(TaskNotFoundException.class);
@@ -81,6 +248,28 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.description").value("test-description"));
     }
 
+    @Test
+    void findTaskByIdShouldReturnVersionAsETag() throws Exception {
+        Task task = new Task("test-name", "");
+        ReflectionTestUtils.setField(task, "version", 3L);
+        when(service.findById(1L)).thenReturn(task);
+
+        mockMvc.perform(get("/api/tasks/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    void findTaskByIdShouldReturn304WhenETagMatches() throws Exception {
+        Task task = new Task("test-name", "");
+        ReflectionTestUtils.setField(task, "version", 3L);
+        when(service.findById(1L)).thenReturn(task);
+
+        mockMvc.perform(get("/api/tasks/{id}", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void findAllTasksShouldReturnAList() throws Exception {
         List<Task> tasks = List.of(
@@ -94,6 +283,106 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void findAllTasksShouldAskCachesToRevalidatePerRepresentation() throws Exception {
+        when(service.findAll()).thenReturn(List.of(new Task("task1", "")));
+
+        mockMvc.perform(get("/api/tasks").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"));
+    }
+
+    @Test
+    void findAllTasksShouldServeTheCachedBodyUntilATaskChanges() throws Exception {
+        when(service.findAll()).thenReturn(List.of(new Task("task1", "")));
+
+        String eTag = mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("task1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        mockMvc.perform(get("/api/tasks").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        verify(service, times(1)).findAll();
+
+        listCache.on(TaskEvent.deleted(1L));
+        when(service.findAll()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/tasks").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void findAllTasksShouldServeTheGzippedBodyWhenAccepted() throws Exception {
+        when(service.findByStatus(TaskStatus.TODO)).thenReturn(List.of(new Task("task1", "")));
+
+        byte[] gzipped = mockMvc.perform(get("/api/tasks?status=TODO")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String json = mockMvc.perform(get("/api/tasks?status=TODO")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsString();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(json);
+        }
+        assertThat(json).contains("\"name\":\"task1\"");
+    }
+
+    @Test
+    void findAllTasksShouldWriteEpochTimestampsWhenAsked() throws Exception {
+        Task claimed = new Task("task2", "");
+        ReflectionTestUtils.setField(claimed, "claimedBy", "worker");
+        ReflectionTestUtils.setField(claimed, "leaseExpires", LocalDateTime.now().plusMinutes(1));
+        when(service.findAll()).thenReturn(List.of(new Task("task1", ""), claimed));
+
+        mockMvc.perform(get("/api/tasks?timestamps=EPOCH"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].created").isNumber())
+                .andExpect(jsonPath("$[0].updated").isNumber())
+                .andExpect(jsonPath("$[0].leaseExpires").doesNotExist())
+                .andExpect(jsonPath("$[1].claimedBy").value("worker"))
+                .andExpect(jsonPath("$[1].leaseExpires").isNumber());
+    }
+
+    @Test
+    void findAllTasksShouldReturnColumnsWhenAccepted() throws Exception {
+        Task task1 = new Task("task1", "");
+        Task task2 = new Task("task2", "");
+        ReflectionTestUtils.setField(task1, "id", 1L);
+        ReflectionTestUtils.setField(task2, "id", 2L);
+        ReflectionTestUtils.setField(task2, "claimedBy", "worker");
+        ReflectionTestUtils.setField(task2, "leaseExpires", LocalDateTime.now().plusMinutes(1));
+        when(service.findAll()).thenReturn(List.of(task1, task2));
+
+        mockMvc.perform(get("/api/tasks").accept(TaskColumns.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TaskColumns.MEDIA_TYPE))
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.id[1]").value(2))
+                .andExpect(jsonPath("$.name[0]").value("task1"))
+                .andExpect(jsonPath("$.created[0]").isNumber())
+                .andExpect(jsonPath("$.claimedBy[1]").value("worker"))
+                .andExpect(jsonPath("$.leaseExpires[1]").isNumber());
+    }
+
+    @Test
+    void findAllTasksShouldReturnCborWhenAccepted() throws Exception {
+        when(service.findAll()).thenReturn(List.of(new Task("task1", "")));
+
+        mockMvc.perform(get("/api/tasks").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
     @Test
     void findTaskByStatusShouldReturnAList() throws Exception {
         Task task = new Task("task1", "");
@@ -107,6 +396,147 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.length()").value(1));
     }
 
+    @Test
+    void searchShouldReturnMatchingTasks() throws Exception {
+        when(service.search("bike", 50)).thenReturn(List.of(new Task("Fix the bike", "")));
+
+        mockMvc.perform(get("/api/tasks/search?q=bike"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Fix the bike"));
+    }
+
+    @Test
+    void searchShouldReturn400WhenQueryIsBlank() throws Exception {
+        mockMvc.perform(get("/api/tasks/search?q= "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void statsShouldReturnCountPerStatus() throws Exception {
+        when(service.countByStatus()).thenReturn(Map.of(
+                TaskStatus.TODO, 3L,
+                TaskStatus.DONE, 1L));
+
+        mockMvc.perform(get("/api/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.TODO").value(3))
+                .andExpect(jsonPath("$.DONE").value(1));
+    }
+
+    @Test
+    void changesShouldReturnChangedAndDeletedTasksWithWatermark() throws Exception {
+        Task task = new Task("task1", "");
+        ReflectionTestUtils.setField(task, "id", 3L);
+        when(service.findChangedSince(40L, 2L, 2))
+                .thenReturn(new TaskChanges(List.of(task), List.of(4L), 42L, 4L));
+
+        mockMvc.perform(get("/api/tasks/changes?since=40&after=2&limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].id").value(3))
+                .andExpect(jsonPath("$.changed[0].updated").exists())
+                .andExpect(jsonPath("$.deleted[0]").value(4))
+                .andExpect(jsonPath("$.watermark").value(42))
+                .andExpect(jsonPath("$.after").value(4));
+    }
+
+    @Test
+    void archiveShouldReturnPageOfArchivedTasks() throws Exception {
+        when(service.findArchivePage(5L, 100)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/tasks/archive?after=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void findPageShouldReturnNextCursorWhenPageIsFull() throws Exception {
+        Task task1 = new Task("task1", "");
+        Task task2 = new Task("task2", "");
+        ReflectionTestUtils.setField(task1, "id", 11L);
+        ReflectionTestUtils.setField(task2, "id", 12L);
+        when(service.findPage(10L, 2)).thenReturn(List.of(task1, task2));
+
+        mockMvc.perform(get("/api/tasks?after=10&limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(12));
+    }
+
+    @Test
+    void findPageShouldReturnNoCursorOnLastPage() throws Exception {
+        when(service.findPageByStatus(TaskStatus.TODO, null, 5))
+                .thenReturn(List.of(new Task("task1", "")));
+
+        mockMvc.perform(get("/api/tasks?status=TODO&limit=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void findPageShouldReturn400WhenLimitOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/tasks?limit=0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks?limit=" + (TaskController.MAX_PAGE_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamTasksShouldWriteOneJsonObjectPerLine() throws Exception {
+        when(service.streamAll()).thenReturn(Stream.of(
+                new Task("task1", ""),
+                new Task("task2", "")));
+
+        MvcResult result = mockMvc.perform(get("/api/tasks")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(matchesPattern(
+                        "(\\{\"id\":null,\"name\":\"task\\d\"[^\\n]*}\\n){2}")));
+    }
+
+    @Test
+    void claimShouldReturnLeasedTasksCappedAtMaxClaim() throws Exception {
+        LocalDateTime expires = LocalDateTime.now().plusMinutes(5);
+        Task task = new Task(3L, "queued", "", TaskStatus.IN_PROGRESS, LocalDateTime.now(),
+                LocalDateTime.now(), "worker-1", expires, 1L, 4L);
+        when(service.claim("worker-1", Duration.ofMinutes(5), 100)).thenReturn(List.of(task));
+
+        mockMvc.perform(post("/api/tasks/claim").param("max", "500")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LeaseRequest("worker-1"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$[0].claimedBy").value("worker-1"))
+                .andExpect(jsonPath("$[0].leaseExpires").exists());
+    }
+
+    @Test
+    void claimShouldReturn400WithoutClaimant() throws Exception {
+        mockMvc.perform(post("/api/tasks/claim")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LeaseRequest(" "))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void renewLeaseShouldReturn409WhenLeaseIsNotHeld() throws Exception {
+        when(service.renewLease(3L, "worker-2", Duration.ofMinutes(5)))
+                .thenThrow(new TaskLeaseNotHeldException(3L, "worker-2"));
+
+        mockMvc.perform(put("/api/tasks/3/lease")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LeaseRequest("worker-2"))))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void completeTaskShouldReturn404WhenNotFound() throws Exception {
         doThrow(new TaskNotFoundException(999L)).when(service).markAsDone(999L);
@@ -123,6 +553,69 @@ class TaskControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void completeTasksShouldReturnResultPerId() throws Exception {
+        String request = objectMapper.writeValueAsString(new TaskIdsRequest(List.of(1L, 999L)));
+        when(service.markAllAsDone(List.of(1L, 999L))).thenReturn(Set.of(1L));
+
+        mockMvc.perform(put("/api/tasks/complete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].status").value(204))
+                .andExpect(jsonPath("$[1].id").value(999))
+                .andExpect(jsonPath("$[1].status").value(404));
+    }
+
+    @Test
+    void completeTasksShouldReturn400WhenIdsAreEmpty() throws Exception {
+        String request = objectMapper.writeValueAsString(new TaskIdsRequest(List.of()));
+
+        mockMvc.perform(put("/api/tasks/complete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deleteTasksShouldReturnResultPerId() throws Exception {
+        String request = objectMapper.writeValueAsString(new TaskIdsRequest(List.of(1L, 999L)));
+        when(service.deleteAll(List.of(1L, 999L))).thenReturn(Set.of(1L));
+
+        mockMvc.perform(delete("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(204))
+                .andExpect(jsonPath("$[1].status").value(404));
+    }
+
+    @Test
+    void completeTaskShouldPassIfMatchVersionToService() throws Exception {
+        mockMvc.perform(put("/api/tasks/{id}/complete", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isNoContent());
+
+        verify(service).markAsDone(1L, 3L);
+    }
+
+    @Test
+    void completeTaskShouldReturn412WhenVersionIsStale() throws Exception {
+        doThrow(new TaskVersionMismatchException(1L)).when(service).markAsDone(1L, 2L);
+
+        mockMvc.perform(put("/api/tasks/{id}/complete", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"2\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void deleteTaskShouldReturn412WhenIfMatchIsNotAVersion() throws Exception {
+        mockMvc.perform(delete("/api/tasks/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "W/\"2\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void deleteTaskShouldReturn404WhenNotFound() throws Exception {
         doThrow(new TaskNotFoundException(999L)).when(service).delete(999L);
@@ -151,6 +644,20 @@ class TaskControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void updateDescriptionShouldPassIfMatchVersionToService() throws Exception {
+        String request = objectMapper.writeValueAsString(
+                new UpdateDescriptionRequest("test"));
+
+        mockMvc.perform(put("/api/tasks/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isNoContent());
+
+        verify(service).updateDescription(1L, "test", 5L);
+    }
+
     @Test
     void updateDescriptionShouldReturn400WhenValidationFailed() throws Exception {
         doNothing().when(service).updateDescription(999L, "");
@@ -0,0 +1,51 @@
+package ctambaoan.taskapi.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ctambaoan.taskapi.service.TaskService;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TaskEventControllerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TaskService service;
+
+    @Test
+    void streamShouldPushCommittedChanges() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/tasks/events"))
+                .header("Accept", "text/event-stream")
+                .build();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<Stream<String>> response =
+                    client.send(request, HttpResponse.BodyHandlers.ofLines());
+            assertThat(response.headers().firstValue("Content-Type"))
+                    .hasValueSatisfying(type -> assertThat(type).startsWith("text/event-stream"));
+
+            Long id = service.create("streamed", "").getId();
+
+            try (Stream<String> lines = response.body()) {
+                Iterator<String> iterator = lines
+                        .filter(line -> !line.isEmpty() && !line.startsWith(":"))
+                        .iterator();
+                assertThat(iterator.next()).startsWith("id:");
+                assertThat(iterator.next())
+                        .startsWith("data:")
+                        .contains("\"type\":\"CREATED\"", "\"taskId\":" + id);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package ctambaoan.taskapi.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ctambaoan.taskapi.config.TaskListCacheProperties;
+import ctambaoan.taskapi.controller.TaskListResponseCache.Body;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskEvent;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.service.TaskService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+@ExtendWith(MockitoExtension.class)
+class TaskListResponseCacheTest {
+
+    @Mock
+    private TaskService service;
+
+    private TaskListResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cache = new TaskListResponseCache(service, objectMapper,
+                new TaskListCacheProperties(DataSize.ofKilobytes(1)));
+    }
+
+    @Test
+    void concurrentMissesLoadTheListOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(service.findByStatus(TaskStatus.TODO)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return List.of(new Task("todo", ""));
+        });
+
+        List<Future<Body>> bodies = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            bodies.add(executor.submit(() -> cache.get(TaskStatus.TODO)));
+            assertThat(loading.await(1, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 7; i++) {
+                bodies.add(executor.submit(() -> cache.get(TaskStatus.TODO)));
+            }
+            Thread.sleep(50);
+            release.countDown();
+        }
+
+        Body first = bodies.getFirst().get();
+        for (Future<Body> body : bodies) {
+            assertThat(body.get()).isSameAs(first);
+        }
+        verify(service, times(1)).findByStatus(TaskStatus.TODO);
+    }
+
+    @Test
+    void keepsOneBodyPerStatusUntilATaskChanges() {
+        when(service.findAll()).thenReturn(List.of(new Task("any", "")));
+        when(service.findByStatus(TaskStatus.DONE)).thenReturn(List.of());
+
+        Body all = cache.get(null);
+        Body done = cache.get(TaskStatus.DONE);
+
+        assertThat(cache.get(null)).isSameAs(all);
+        assertThat(cache.get(TaskStatus.DONE)).isSameAs(done);
+        assertThat(all.eTag()).isNotEqualTo(done.eTag()).startsWith("W/\"");
+
+        cache.on(TaskEvent.completed(1L));
+
+        assertThat(cache.get(null)).isNotSameAs(all);
+        assertThat(cache.get(TaskStatus.DONE)).isNotSameAs(done);
+        verify(service, times(2)).findAll();
+        verify(service, times(2)).findByStatus(TaskStatus.DONE);
+    }
+
+    @Test
+    void doesNotKeepABodyLoadedBeforeAChange() {
+        when(service.findAll())
+                .thenAnswer(invocation -> {
+                    cache.on(TaskEvent.deleted(1L));
+                    return List.of(new Task("stale", ""));
+                })
+                .thenReturn(List.of());
+
+        Body stale = cache.get(null);
+        Body fresh = cache.get(null);
+
+        assertThat(new String(stale.json())).contains("stale");
+        assertThat(new String(fresh.json())).isEqualTo("[]");
+    }
+
+    @Test
+    void doesNotKeepABodyLargerThanTheLimit() {
+        when(service.findAll()).thenReturn(List.of(new Task("large", "x".repeat(2000))));
+        when(service.findByStatus(TaskStatus.DONE)).thenReturn(List.of());
+
+        Body large = cache.get(null);
+        Body small = cache.get(TaskStatus.DONE);
+
+        assertThat(cache.get(null)).isNotSameAs(large)
+                .extracting(Body::eTag).isEqualTo(large.eTag());
+        assertThat(cache.get(TaskStatus.DONE)).isSameAs(small);
+        verify(service, times(2)).findAll();
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        when(service.findAll())
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of());
+
+        assertThatThrownBy(() -> cache.get(null)).hasMessage("database down");
+        assertThat(new String(cache.get(null).json())).isEqualTo("[]");
+    }
+}
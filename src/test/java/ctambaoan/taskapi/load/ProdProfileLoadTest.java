@@ -0,0 +1,121 @@
+package ctambaoan.taskapi.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Drives a mixed create, read and page workload through the {@code prod} profile against a
+ * file-based H2 database and prints throughput, latency percentiles, the peak number of
+ * requests waiting for a connection and the slow statements reported. Excluded from the
+ * default build; run with {@code mvn test -Pload-test}.
+ */
+@Tag("load")
+@ActiveProfiles("prod")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:file:./target/load-test/task-api-${random.uuid};QUERY_CACHE_SIZE=64")
+class ProdProfileLoadTest {
+
+    private static final int CONCURRENCY = 200;
+    private static final int REQUESTS = 20_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void mixedWorkloadOnFileDatabase() throws Exception {
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        long[] latencies = new long[REQUESTS];
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        AtomicInteger maxPending = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                int request = i;
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        HttpRequest.Builder builder = switch (request % 5) {
+                            case 0, 1 -> HttpRequest.newBuilder(uri("/api/tasks"))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(
+                                            "{\"name\":\"load-" + request + "\",\"description\":\"d\"}"));
+                            case 2, 3 -> HttpRequest.newBuilder(uri("/api/tasks/" + (request / 5 + 1)));
+                            default -> HttpRequest.newBuilder(uri("/api/tasks?limit=50&after=" + request / 10));
+                        };
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = client.send(builder.build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        latencies[request] = System.nanoTime() - sent;
+                        maxPending.accumulateAndGet(pool.getHikariPoolMXBean().getThreadsAwaitingConnection(),
+                                Math::max);
+                        statuses.computeIfAbsent(response.statusCode(), status -> new AtomicInteger())
+                                .incrementAndGet();
+                    } catch (Exception ex) {
+                        statuses.computeIfAbsent(-1, status -> new AtomicInteger()).incrementAndGet();
+                    } finally {
+                        inFlight.release();
+                    }
+                    return null;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        long slowStatements = registry.find("task.jdbc.slow-statements").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+        System.out.printf("%s: %d requests, concurrency %d, pool %d, %.0f req/s, p50 %.1f ms, "
+                        + "p99 %.1f ms, max %.1f ms, max awaiting connection %d, slow statements %d, "
+                        + "statuses %s%n",
+                getClass().getSimpleName(), REQUESTS, CONCURRENCY, pool.getMaximumPoolSize(),
+                REQUESTS / (elapsed / 1e9),
+                latencies[REQUESTS / 2] / 1e6,
+                latencies[REQUESTS * 99 / 100] / 1e6,
+                latencies[REQUESTS - 1] / 1e6,
+                maxPending.get(), slowStatements, statuses);
+        List<Integer> unexpected = new ArrayList<>(statuses.keySet());
+        unexpected.removeAll(List.of(200, 201, 404));
+        assertThat(unexpected).isEmpty();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
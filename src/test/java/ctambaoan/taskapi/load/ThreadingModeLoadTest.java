@@ -0,0 +1,143 @@
+package ctambaoan.taskapi.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.service.TaskService;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Drives a mixed read workload (cached single-task reads and database-backed page reads)
+ * at high concurrency against a database that takes {@value #DB_LATENCY_MILLIS} ms per
+ * connection checkout, and prints throughput, latency percentiles of the requests that got
+ * a response and the number that failed. Subclasses pick the threading mode. Excluded from the default build; run with {@code mvn test -Pload-test}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(ThreadingModeLoadTest.SlowDatabaseConfig.class)
+abstract class ThreadingModeLoadTest {
+
+    static final long DB_LATENCY_MILLIS = 5;
+    private static final int CONCURRENCY = 500;
+    private static final int REQUESTS = 20_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TaskService service;
+
+    @Test
+    void mixedReadWorkload() throws Exception {
+        List<Long> ids = service.createAll(IntStream.range(0, 1_000)
+                        .mapToObj(i -> new Task("load-" + i, "description " + i))
+                        .toList())
+                .stream()
+                .map(Task::getId)
+                .toList();
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        long[] latencies = new long[REQUESTS];
+        Arrays.fill(latencies, -1);
+        AtomicInteger failures = new AtomicInteger();
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                int request = i;
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        String path = request % 2 == 0 ?
+                                "/api/tasks/" + ids.get(request % ids.size()) :
+                                "/api/tasks?limit=50&after=" + ids.get(request % ids.size());
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = client.send(
+                                HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        latencies[request] = System.nanoTime() - sent;
+                        statuses.computeIfAbsent(response.statusCode(), status -> new AtomicInteger())
+                                .incrementAndGet();
+                    } catch (Exception ex) {
+                        failures.incrementAndGet();
+                    } finally {
+                        inFlight.release();
+                    }
+                    return null;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] answered = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        System.out.printf("%s: %d requests, concurrency %d, %.0f req/s, p50 %.1f ms, "
+                        + "p99 %.1f ms, max %.1f ms, statuses %s, failed %d%n",
+                getClass().getSimpleName(), REQUESTS, CONCURRENCY,
+                answered.length / (elapsed / 1e9),
+                answered[answered.length / 2] / 1e6,
+                answered[answered.length * 99 / 100] / 1e6,
+                answered[answered.length - 1] / 1e6,
+                statuses, failures.get());
+        List<Integer> unexpected = new ArrayList<>(statuses.keySet());
+        unexpected.removeAll(List.of(200, 503));
+        assertThat(unexpected).isEmpty();
+        assertThat(failures).hasValue(0);
+    }
+
+    /**
+     * Replaces the pool with a {@link HikariDataSource} subclass rather than wrapping it, so
+     * the limiter still finds the pool size it is sized from.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class SlowDatabaseConfig {
+
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        HikariDataSource dataSource(DataSourceProperties properties) {
+            return properties.initializeDataSourceBuilder().type(SlowDataSource.class).build();
+        }
+    }
+
+    static class SlowDataSource extends HikariDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            try {
+                Thread.sleep(DB_LATENCY_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return connection;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ctambaoan.taskapi.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadsLoadTest extends ThreadingModeLoadTest {
+}
@@ -0,0 +1,54 @@
+package ctambaoan.taskapi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ctambaoan.taskapi.domain.ArchivedTask;
+import ctambaoan.taskapi.domain.Task;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+
+@DataJdbcTest
+class ArchivedTaskRepositoryTest {
+
+    @Autowired
+    ArchivedTaskRepository archive;
+    @Autowired
+    TaskRepository tasks;
+    List<Long> ids;
+
+    @BeforeEach
+    void setup() {
+        ids = tasks.saveAll(List.of(new Task("first", ""), new Task("second", ""),
+                        new Task("third", ""))).stream()
+                .map(Task::getId)
+                .toList();
+        tasks.copyToArchive(ids);
+        tasks.deleteByIdIn(ids);
+    }
+
+    @Test
+    void findPageReturnsArchivedTasksAfterCursor() {
+        List<ArchivedTask> page = archive.findPage(ids.getFirst(), 1);
+
+        assertThat(page).extracting(ArchivedTask::getName).containsExactly("second");
+        assertThat(page.getFirst().getArchived()).isNotNull();
+    }
+
+    @Test
+    void purgeRemovesAtMostLimitRows() {
+        LocalDateTime later = LocalDateTime.now().plusMinutes(1);
+
+        assertThat(archive.purge(later, 2)).isEqualTo(2);
+        assertThat(archive.purge(later, 2)).isEqualTo(1);
+        assertThat(archive.findPage(0L, 10)).isEmpty();
+    }
+
+    @Test
+    void purgeKeepsRowsArchivedAfterCutoff() {
+        assertThat(archive.purge(LocalDateTime.now().minusMinutes(1), 10)).isZero();
+    }
+}
@@ -3,22 +3,34 @@ package ctambaoan.taskapi.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskField;
+import ctambaoan.taskapi.domain.TaskProjection;
+import ctambaoan.taskapi.domain.TaskStatus;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 @DataJdbcTest
 class TaskRepositoryTest {
 
     @Autowired
     TaskRepository repository;
+    @Autowired
+    JdbcTemplate jdbc;
     Task newTask;
     Task savedTask;
 
     @BeforeEach
     void setup() {
         newTask = new Task("name", "description");
+        repository.nextChange();
         savedTask = repository.save(newTask);
     }
 
@@ -32,4 +44,260 @@ class TaskRepositoryTest {
         Long id = savedTask.getId();
         assertThat(repository.findById(id)).isPresent();
     }
+
+    @Test
+    void findPageReturnsTasksAfterCursorInIdOrder() {
+        Task second = repository.save(new Task("second", ""));
+        Task third = repository.save(new Task("third", ""));
+
+        List<Task> page = repository.findPage(savedTask.getId(), 1);
+
+        assertThat(page).extracting(Task::getId).containsExactly(second.getId());
+        assertThat(repository.findPage(second.getId(), 10))
+                .extracting(Task::getId).containsExactly(third.getId());
+    }
+
+    @Test
+    void findPageByStatusOnlyReturnsMatchingTasks() {
+        Task done = new Task("done", "");
+        done.markAsDone();
+        repository.save(done);
+
+        assertThat(repository.findPageByStatus(TaskStatus.DONE, 0L, 10))
+                .extracting(Task::getName).containsExactly("done");
+    }
+
+    @Test
+    void streamAllReturnsEveryTask() {
+        repository.save(new Task("second", ""));
+
+        try (Stream<Task> tasks = repository.streamAll()) {
+            assertThat(tasks).extracting(Task::getName).containsExactly("name", "second");
+        }
+    }
+
+    @Test
+    void saveAllInsertsEveryTask() {
+        List<Task> saved = repository.saveAll(List.of(new Task("a", ""), new Task("b", "")));
+
+        assertThat(saved).extracting(Task::getId).doesNotContainNull();
+        assertThat(repository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void updateStatusChangesOnlyGivenTasks() {
+        Task other = repository.save(new Task("other", ""));
+
+        int updated = repository.updateStatus(Set.of(savedTask.getId()), TaskStatus.DONE);
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(repository.findById(savedTask.getId()).get().getStatus()).isEqualTo(TaskStatus.DONE);
+        assertThat(repository.findById(other.getId()).get().getStatus()).isEqualTo(TaskStatus.TODO);
+    }
+
+    @Test
+    void deleteByIdInRemovesOnlyExistingTasks() {
+        int deleted = repository.deleteByIdIn(Set.of(savedTask.getId(), -1L));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(repository.findExistingIds(Set.of(savedTask.getId()))).isEmpty();
+    }
+
+    @Test
+    void updateDescriptionReturnsAffectedRows() {
+        assertThat(repository.updateDescription(savedTask.getId(), "changed")).isEqualTo(1);
+        assertThat(repository.updateDescription(-1L, "changed")).isZero();
+        assertThat(repository.findById(savedTask.getId()).get().getDescription()).isEqualTo("changed");
+    }
+
+    @Test
+    void removeByIdReturnsAffectedRows() {
+        assertThat(repository.removeById(savedTask.getId())).isEqualTo(1);
+        assertThat(repository.removeById(savedTask.getId())).isZero();
+    }
+
+    @Test
+    void newTaskStartsAtVersionZeroAndEveryWriteIncrementsIt() {
+        assertThat(savedTask.getVersion()).isZero();
+
+        repository.updateDescription(savedTask.getId(), "changed");
+        repository.updateStatus(savedTask.getId(), TaskStatus.DONE);
+
+        assertThat(repository.findById(savedTask.getId()).get().getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void conditionalUpdateOnlyAppliesToMatchingVersion() {
+        assertThat(repository.updateDescription(savedTask.getId(), "stale", 5L)).isZero();
+        assertThat(repository.updateDescription(savedTask.getId(), "fresh", 0L)).isEqualTo(1);
+        assertThat(repository.removeById(savedTask.getId(), 0L)).isZero();
+        assertThat(repository.removeById(savedTask.getId(), 1L)).isEqualTo(1);
+    }
+
+    @Test
+    void findChangedSinceReturnsTasksChangedAfterTheChangeNumber() {
+        long before = repository.lastChange();
+
+        repository.nextChange();
+        repository.updateDescription(savedTask.getId(), "changed");
+        long upTo = repository.lastChange();
+
+        assertThat(repository.findChangedSince(before, Long.MAX_VALUE, upTo, 10))
+                .extracting(Task::getDescription).containsExactly("changed");
+        assertThat(repository.findChangedSince(upTo, Long.MAX_VALUE, upTo, 10)).isEmpty();
+    }
+
+    @Test
+    void findChangedSincePagesInChangeOrder() {
+        repository.nextChange();
+        Task other = repository.save(new Task("other", ""));
+        long upTo = repository.lastChange();
+
+        List<Task> first = repository.findChangedSince(0L, Long.MAX_VALUE, upTo, 1);
+
+        assertThat(first).extracting(Task::getId).containsExactly(savedTask.getId());
+        Task last = first.getLast();
+        assertThat(repository.findChangedSince(last.getChangeNumber(), last.getId(), upTo, 1))
+                .extracting(Task::getId).containsExactly(other.getId());
+        assertThat(repository.findChangedSince(0L, Long.MAX_VALUE, last.getChangeNumber(), 10))
+                .extracting(Task::getId).containsExactly(savedTask.getId());
+    }
+
+    @Test
+    void tombstonesRecordDeletedTasks() {
+        Task other = repository.save(new Task("other", ""));
+        long since = repository.lastChange();
+
+        repository.nextChange();
+        repository.removeById(savedTask.getId());
+        repository.addTombstone(savedTask.getId());
+        repository.addTombstones(Set.of(other.getId(), -1L));
+        repository.deleteByIdIn(Set.of(other.getId()));
+        long upTo = repository.lastChange();
+
+        assertThat(repository.findDeletedSince(since, Long.MAX_VALUE, upTo, 10))
+                .extracting(TaskTombstone::taskId)
+                .containsExactlyInAnyOrder(savedTask.getId(), other.getId());
+        assertThat(repository.findDeletedSince(upTo, Long.MAX_VALUE, upTo, 10)).isEmpty();
+    }
+
+    @Test
+    void onlyOldFinishedTasksAreArchivable() {
+        Task done = new Task("done", "");
+        done.markAsDone();
+        Long doneId = repository.save(done).getId();
+        LocalDateTime cutoff = LocalDateTime.now().plusMinutes(1);
+
+        List<Long> ids = repository.lockArchivable(cutoff, 10);
+
+        assertThat(ids).containsExactly(doneId);
+        assertThat(repository.lockArchivable(LocalDateTime.now().minusMinutes(1), 10)).isEmpty();
+        assertThat(repository.copyToArchive(ids)).isEqualTo(1);
+    }
+
+    @Test
+    void findProjectedReadsOnlyRequestedFields() {
+        Set<TaskField> fields = EnumSet.of(TaskField.ID, TaskField.STATUS);
+
+        List<TaskProjection> tasks = repository.findProjected(TaskStatus.TODO, fields);
+
+        assertThat(tasks).singleElement().satisfies(task -> {
+            assertThat(task.id()).isEqualTo(savedTask.getId());
+            assertThat(task.status()).isEqualTo(TaskStatus.TODO);
+            assertThat(task.name()).isNull();
+            assertThat(task.description()).isNull();
+            assertThat(task.version()).isZero();
+        });
+        assertThat(repository.findProjected(TaskStatus.DONE, fields)).isEmpty();
+    }
+
+    @Test
+    void findProjectedByIdReadsTimestamps() {
+        Set<TaskField> fields = EnumSet.of(TaskField.DESCRIPTION, TaskField.CREATED);
+
+        assertThat(repository.findProjectedById(savedTask.getId(), fields)).hasValueSatisfying(task -> {
+            assertThat(task.description()).isEqualTo("description");
+            assertThat(task.created()).isNotNull();
+            assertThat(task.id()).isNull();
+        });
+        assertThat(repository.findProjectedById(-1L, fields)).isEmpty();
+    }
+
+    @Test
+    void countByStatusGroupsTasks() {
+        Task done = new Task("done", "");
+        done.markAsDone();
+        repository.saveAll(List.of(done, new Task("todo", "")));
+
+        assertThat(repository.countByStatus()).containsExactlyInAnyOrder(
+                new TaskStatusCount(TaskStatus.TODO, 2),
+                new TaskStatusCount(TaskStatus.DONE, 1));
+    }
+
+    @Test
+    void claimLeasesOldestTodoTasks() {
+        Task second = repository.save(new Task("second", ""));
+        repository.save(new Task("third", ""));
+        LocalDateTime expires = LocalDateTime.now().plusMinutes(5);
+
+        List<Task> claimed = repository.claim("worker", expires, 2);
+
+        assertThat(claimed).extracting(Task::getId).containsExactly(savedTask.getId(), second.getId());
+        assertThat(claimed).allSatisfy(task -> {
+            assertThat(task.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+            assertThat(task.getClaimedBy()).isEqualTo("worker");
+            assertThat(task.getLeaseExpires()).isNotNull();
+            assertThat(task.getVersion()).isEqualTo(1L);
+        });
+        assertThat(repository.claim("other", expires, 10)).extracting(Task::getName).containsExactly("third");
+        assertThat(repository.claim("other", expires, 10)).isEmpty();
+    }
+
+    @Test
+    void renewLeaseOnlyAppliesToTheClaimant() {
+        Task claimed = repository.claim("worker", LocalDateTime.now().plusMinutes(1), 1).getFirst();
+        LocalDateTime lastWritten = LocalDateTime.now().minusHours(1);
+        jdbc.update("UPDATE task SET updated = ? WHERE id = ?", lastWritten, claimed.getId());
+        LocalDateTime renewed = LocalDateTime.now().plusMinutes(10);
+
+        assertThat(repository.renewLease(savedTask.getId(), "other", renewed)).isZero();
+        assertThat(repository.renewLease(savedTask.getId(), "worker", renewed)).isEqualTo(1);
+        Task task = repository.findById(savedTask.getId()).orElseThrow();
+        assertThat(task.getLeaseExpires()).isAfter(LocalDateTime.now().plusMinutes(9));
+        assertThat(task.getUpdated()).isAfter(lastWritten);
+        assertThat(task.getVersion()).isEqualTo(claimed.getVersion());
+        assertThat(repository.findProjectedById(task.getId(),
+                EnumSet.of(TaskField.CLAIMED_BY, TaskField.LEASE_EXPIRES))).hasValueSatisfying(lease -> {
+            assertThat(lease.claimedBy()).isEqualTo("worker");
+            assertThat(lease.leaseExpires()).isEqualTo(task.getLeaseExpires());
+        });
+    }
+
+    @Test
+    void releaseExpiredLeasesReturnsOnlyExpiredTasksToTodo() {
+        repository.claim("worker", LocalDateTime.now().minusSeconds(1), 1);
+        Task live = repository.save(new Task("live", ""));
+        repository.claim("worker", LocalDateTime.now().plusMinutes(5), 1);
+
+        assertThat(repository.releaseExpiredLeases(LocalDateTime.now(), 10))
+                .containsExactly(savedTask.getId());
+
+        Task released = repository.findById(savedTask.getId()).orElseThrow();
+        assertThat(released.getStatus()).isEqualTo(TaskStatus.TODO);
+        assertThat(released.getClaimedBy()).isNull();
+        assertThat(released.getLeaseExpires()).isNull();
+        assertThat(repository.findById(live.getId()).orElseThrow().getStatus())
+                .isEqualTo(TaskStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void statusChangeEndsLease() {
+        repository.claim("worker", LocalDateTime.now().plusMinutes(5), 1);
+
+        repository.updateStatus(savedTask.getId(), TaskStatus.DONE);
+
+        Task done = repository.findById(savedTask.getId()).orElseThrow();
+        assertThat(done.getClaimedBy()).isNull();
+        assertThat(done.getLeaseExpires()).isNull();
+    }
 }
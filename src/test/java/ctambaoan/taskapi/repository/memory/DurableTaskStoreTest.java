@@ -0,0 +1,191 @@
+package ctambaoan.taskapi.repository.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ctambaoan.taskapi.domain.ArchivedTask;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.repository.TaskTombstone;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class DurableTaskStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversEveryLoggedChange() {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(16);
+        DurableTaskStore store = open(repository);
+        Task kept = repository.save(new Task("kept", "description"));
+        Task deleted = repository.save(new Task("deleted", ""));
+        Task done = repository.save(new Task("done", ""));
+        repository.updateDescription(kept.getId(), "changed");
+        repository.updateStatus(done.getId(), TaskStatus.DONE);
+        repository.addTombstone(deleted.getId());
+        repository.removeById(deleted.getId());
+        repository.copyToArchive(List.of(done.getId()));
+        repository.deleteByIdIn(List.of(done.getId()));
+        List<Long> reserved = repository.reserveIds(10);
+        store.close();
+
+        InMemoryTaskRepository recovered = new InMemoryTaskRepository(16);
+        open(recovered);
+
+        assertThat(recovered.findAll()).singleElement().satisfies(task -> {
+            assertThat(task.getDescription()).isEqualTo("changed");
+            assertThat(task.getVersion()).isEqualTo(1);
+        });
+        assertThat(recovered.findArchivePage(0L, 10)).extracting(ArchivedTask::getId)
+                .containsExactly(done.getId());
+        assertThat(recovered.findDeletedSince(0L, Long.MAX_VALUE, Long.MAX_VALUE, 10))
+                .extracting(TaskTombstone::taskId).containsExactly(deleted.getId());
+        assertThat(recovered.save(new Task("next", "")).getId()).isGreaterThan(reserved.getLast());
+    }
+
+    @Test
+    void snapshotCompactsTheLog() throws IOException {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(16);
+        DurableTaskStore store = open(repository);
+        repository.save(new Task("before", ""));
+        store.snapshot();
+        repository.save(new Task("after", ""));
+        store.close();
+
+        assertThat(fileNames()).containsExactlyInAnyOrder("snapshot-2.bin", "wal-2.log");
+
+        InMemoryTaskRepository recovered = new InMemoryTaskRepository(16);
+        open(recovered).snapshotAndClose();
+
+        assertThat(recovered.findAll()).extracting(Task::getName).containsExactly("before", "after");
+        assertThat(fileNames()).containsExactlyInAnyOrder("snapshot-4.bin", "wal-4.log");
+    }
+
+    @Test
+    void recoveryStopsAtTornRecord() throws IOException {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(16);
+        DurableTaskStore store = open(repository);
+        repository.save(new Task("first", ""));
+        repository.save(new Task("second", ""));
+        store.close();
+        Files.write(directory.resolve("wal-1.log"), new byte[] {0, 0, 0, 100, 1, 2, 3},
+                StandardOpenOption.APPEND);
+
+        InMemoryTaskRepository recovered = new InMemoryTaskRepository(16);
+        open(recovered);
+
+        assertThat(recovered.findAll()).extracting(Task::getName).containsExactly("first", "second");
+    }
+
+    @Test
+    void failedFlushRejectsLaterChanges() throws Exception {
+        TaskWriteAheadLog journal = new TaskWriteAheadLog(directory.resolve("wal-1.log"),
+                FsyncPolicy.INTERVAL, Duration.ofMillis(10));
+        ((FileChannel) ReflectionTestUtils.getField(journal, "channel")).close();
+        journal.taskRemoved(1);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                journal.taskRemoved(1);
+            } catch (UncheckedIOException ex) {
+                break;
+            }
+            Thread.sleep(10);
+        }
+
+        assertThatThrownBy(() -> journal.taskRemoved(2)).isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> journal.awaitDurable(journal.position()))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void readsWaitForTheChangesTheySeeToBeDurable() {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(16);
+        List<Long> awaited = new ArrayList<>();
+        repository.attach(new TaskChangeLog() {
+            long appended;
+
+            @Override
+            public void taskStored(Task task) {
+                appended++;
+            }
+
+            @Override
+            public long position() {
+                return appended;
+            }
+
+            @Override
+            public void awaitDurable(long position) {
+                awaited.add(position);
+            }
+        });
+
+        Task task = repository.save(new Task("task", ""));
+        repository.findById(task.getId());
+
+        assertThat(awaited).containsExactly(1L, 1L);
+    }
+
+    @Test
+    void nothingIsReadOnceTheLogHasFailed() {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(16);
+        Task task = repository.save(new Task("task", ""));
+        repository.attach(new TaskChangeLog() {
+            @Override
+            public void awaitDurable(long position) {
+                throw new UncheckedIOException(new IOException("sync failed"));
+            }
+        });
+
+        assertThatThrownBy(() -> repository.updateDescription(task.getId(), "lost"))
+                .isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> repository.findById(task.getId()))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void concurrentWritesAreAllDurable() throws Exception {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(16);
+        DurableTaskStore store = open(repository);
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            IntStream.range(0, 400).forEach(i -> executor.submit(() -> repository.save(new Task("task " + i, ""))));
+        }
+        store.close();
+
+        InMemoryTaskRepository recovered = new InMemoryTaskRepository(16);
+        open(recovered);
+
+        assertThat(recovered.count()).isEqualTo(400);
+    }
+
+    private DurableTaskStore open(InMemoryTaskRepository repository) {
+        DurableTaskStore store = new DurableTaskStore(repository, directory, FsyncPolicy.ALWAYS,
+                Duration.ofMillis(100));
+        store.open();
+        return store;
+    }
+
+    private List<String> fileNames() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+}
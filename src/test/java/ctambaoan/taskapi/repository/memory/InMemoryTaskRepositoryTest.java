@@ -0,0 +1,213 @@
+package ctambaoan.taskapi.repository.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.repository.TaskStatusCount;
+import ctambaoan.taskapi.repository.TaskTombstone;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+class InMemoryTaskRepositoryTest {
+
+    InMemoryTaskRepository repository = new InMemoryTaskRepository(16);
+    Task savedTask;
+
+    @BeforeEach
+    void setup() {
+        savedTask = repository.save(new Task("name", "description"));
+    }
+
+    @Test
+    void saveAssignsIdsAndVersionZero() {
+        Task second = repository.save(new Task("second", ""));
+
+        assertThat(savedTask.getId()).isEqualTo(1L);
+        assertThat(second.getId()).isEqualTo(2L);
+        assertThat(savedTask.getVersion()).isZero();
+        assertThat(repository.findById(1L)).containsSame(savedTask);
+    }
+
+    @Test
+    void reservedIdsAreNotHandedOutAgain() {
+        List<Long> reserved = repository.reserveIds(3);
+        Task task = new Task("reserved", "");
+        task.assignId(reserved.getFirst());
+
+        assertThat(repository.save(task).getId()).isEqualTo(reserved.getFirst());
+        assertThat(repository.save(new Task("next", "")).getId()).isGreaterThan(reserved.getLast());
+    }
+
+    @Test
+    void saveRejectsStaleVersion() {
+        repository.updateDescription(savedTask.getId(), "changed");
+
+        assertThatThrownBy(() -> repository.save(savedTask))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void updatesMoveTasksBetweenStatusIndexes() {
+        Task other = repository.save(new Task("other", ""));
+
+        repository.updateStatus(savedTask.getId(), TaskStatus.DONE);
+
+        assertThat(repository.findByStatus(TaskStatus.DONE)).extracting(Task::getId)
+                .containsExactly(savedTask.getId());
+        assertThat(repository.findPageByStatus(TaskStatus.TODO, 0L, 10)).extracting(Task::getId)
+                .containsExactly(other.getId());
+        assertThat(repository.countByStatus()).containsExactlyInAnyOrder(
+                new TaskStatusCount(TaskStatus.TODO, 1),
+                new TaskStatusCount(TaskStatus.DONE, 1));
+    }
+
+    @Test
+    void findPageReturnsTasksAfterCursorInIdOrder() {
+        Task second = repository.save(new Task("second", ""));
+        Task third = repository.save(new Task("third", ""));
+
+        assertThat(repository.findPage(savedTask.getId(), 1)).extracting(Task::getId)
+                .containsExactly(second.getId());
+        assertThat(repository.findPage(second.getId(), 10)).extracting(Task::getId)
+                .containsExactly(third.getId());
+    }
+
+    @Test
+    void conditionalWritesOnlyApplyToMatchingVersion() {
+        assertThat(repository.updateDescription(savedTask.getId(), "stale", 5L)).isZero();
+        assertThat(repository.updateDescription(savedTask.getId(), "fresh", 0L)).isEqualTo(1);
+        assertThat(repository.removeById(savedTask.getId(), 0L)).isZero();
+        assertThat(repository.removeById(savedTask.getId(), 1L)).isEqualTo(1);
+        assertThat(repository.findByStatus(TaskStatus.TODO)).isEmpty();
+    }
+
+    @Test
+    void tombstonesRecordDeletedTasks() {
+        Task other = repository.save(new Task("other", ""));
+        long since = repository.lastChange();
+
+        repository.removeById(savedTask.getId());
+        repository.addTombstone(savedTask.getId());
+        repository.addTombstones(Set.of(other.getId(), -1L));
+        repository.deleteByIdIn(Set.of(other.getId()));
+        long upTo = repository.lastChange();
+
+        assertThat(repository.findDeletedSince(since, Long.MAX_VALUE, upTo, 10))
+                .extracting(TaskTombstone::taskId)
+                .containsExactly(savedTask.getId(), other.getId());
+        assertThat(repository.findDeletedSince(upTo, Long.MAX_VALUE, upTo, 10)).isEmpty();
+    }
+
+    @Test
+    void changesOfOneWriteShareANumberAndArePagedById() {
+        Task other = repository.save(new Task("other", ""));
+        long since = repository.lastChange();
+
+        repository.updateStatus(List.of(other.getId(), savedTask.getId()), TaskStatus.DONE);
+        long upTo = repository.lastChange();
+
+        assertThat(upTo).isEqualTo(since + 1);
+        assertThat(repository.findChangedSince(since, Long.MAX_VALUE, upTo, 1))
+                .extracting(Task::getId).containsExactly(savedTask.getId());
+        assertThat(repository.findChangedSince(upTo, savedTask.getId(), upTo, 1))
+                .extracting(Task::getId).containsExactly(other.getId());
+        assertThat(repository.findChangedSince(upTo, Long.MAX_VALUE, upTo, 1)).isEmpty();
+    }
+
+    @Test
+    void archivesOnlyOldFinishedTasks() {
+        Task done = new Task("done", "");
+        done.markAsDone();
+        Long doneId = repository.save(done).getId();
+        InMemoryArchivedTaskRepository archive = new InMemoryArchivedTaskRepository(repository);
+
+        List<Long> ids = repository.lockArchivable(LocalDateTime.now().plusMinutes(1), 10);
+        repository.copyToArchive(ids);
+
+        assertThat(ids).containsExactly(doneId);
+        assertThat(repository.lockArchivable(LocalDateTime.now().minusMinutes(1), 10)).isEmpty();
+        assertThat(archive.findPage(0L, 10)).extracting(t -> t.getId()).containsExactly(doneId);
+        assertThat(archive.purge(LocalDateTime.now().plusMinutes(1), 10)).isEqualTo(1);
+    }
+
+    @Test
+    void claimLeasesLowestTodoIdsAndReleasesExpiredLeases() {
+        Task second = repository.save(new Task("second", ""));
+        repository.save(new Task("third", ""));
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Task> claimed = repository.claim("worker", now.minusSeconds(1), 2);
+        repository.claim("other", now.plusMinutes(5), 10);
+
+        assertThat(claimed).extracting(Task::getId).containsExactly(savedTask.getId(), second.getId());
+        assertThat(claimed).allSatisfy(task -> assertThat(task.getClaimedBy()).isEqualTo("worker"));
+        assertThat(repository.findByStatus(TaskStatus.TODO)).isEmpty();
+        assertThat(repository.releaseExpiredLeases(now, 10))
+                .containsExactly(savedTask.getId(), second.getId());
+        assertThat(repository.findByStatus(TaskStatus.TODO)).allSatisfy(task -> {
+            assertThat(task.getClaimedBy()).isNull();
+            assertThat(task.getLeaseExpires()).isNull();
+        });
+        assertThat(repository.findByStatus(TaskStatus.IN_PROGRESS)).extracting(Task::getName)
+                .containsExactly("third");
+    }
+
+    @Test
+    void renewLeaseOnlyAppliesToTheClaimantAndKeepsTheVersion() throws InterruptedException {
+        Task claimed = repository.claim("worker", LocalDateTime.now(), 1).getFirst();
+        LocalDateTime renewed = LocalDateTime.now().plusMinutes(10);
+        Thread.sleep(5);
+
+        assertThat(repository.renewLease(claimed.getId(), "other", renewed)).isZero();
+        assertThat(repository.renewLease(claimed.getId(), "worker", renewed)).isEqualTo(1);
+        Task task = repository.findById(claimed.getId()).orElseThrow();
+        assertThat(task.getLeaseExpires()).isEqualTo(renewed);
+        assertThat(task.getUpdated()).isAfter(claimed.getUpdated());
+        assertThat(task.getVersion()).isEqualTo(claimed.getVersion());
+
+        repository.updateStatus(claimed.getId(), TaskStatus.DONE);
+        assertThat(repository.findById(claimed.getId()).orElseThrow().getClaimedBy()).isNull();
+    }
+
+    @Test
+    void snapshotRestoresTasksArchiveAndTombstones(@TempDir Path dir) {
+        Task done = new Task("done", null);
+        done.markAsDone();
+        Long doneId = repository.save(done).getId();
+        repository.copyToArchive(List.of(doneId));
+        repository.addTombstones(List.of(doneId));
+        repository.deleteByIdIn(List.of(doneId));
+        repository.updateDescription(savedTask.getId(), "changed");
+        Task leased = repository.claim("worker", LocalDateTime.now().plusMinutes(5),
+                1).getFirst();
+        Path file = dir.resolve("tasks.snapshot");
+
+        new TaskSnapshotFile(repository, file).save();
+        InMemoryTaskRepository restored = new InMemoryTaskRepository(16);
+        new TaskSnapshotFile(restored, file).load();
+
+        Task task = restored.findById(savedTask.getId()).orElseThrow();
+        assertThat(task.getDescription()).isEqualTo("changed");
+        assertThat(task.getVersion()).isEqualTo(2);
+        assertThat(task.getUpdated()).isEqualTo(repository.findById(savedTask.getId()).get().getUpdated());
+        assertThat(task.getClaimedBy()).isEqualTo("worker");
+        assertThat(task.getLeaseExpires()).isEqualTo(leased.getLeaseExpires());
+        assertThat(restored.findByStatus(TaskStatus.IN_PROGRESS)).hasSize(1);
+        assertThat(restored.findArchivePage(0L, 10)).singleElement()
+                .satisfies(archived -> assertThat(archived.getDescription()).isNull());
+        assertThat(restored.findDeletedSince(0L, Long.MAX_VALUE, Long.MAX_VALUE, 10))
+                .extracting(TaskTombstone::taskId).containsExactly(doneId);
+        assertThat(restored.lastChange()).isEqualTo(repository.lastChange());
+        assertThat(task.getChangeNumber())
+                .isEqualTo(repository.findById(savedTask.getId()).get().getChangeNumber());
+        assertThat(restored.save(new Task("next", "")).getId()).isEqualTo(doneId + 1);
+    }
+}
@@ -0,0 +1,64 @@
+package ctambaoan.taskapi.repository.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ctambaoan.taskapi.domain.Task;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LongTaskMapTest {
+
+    @Test
+    void putGetAndRemove() {
+        LongTaskMap map = new LongTaskMap(4);
+        Task first = new Task("first", "");
+        Task second = new Task("second", "");
+
+        assertThat(map.put(1, first)).isNull();
+        assertThat(map.put(1, second)).isSameAs(first);
+        assertThat(map.get(1)).isSameAs(second);
+        assertThat(map.get(2)).isNull();
+        assertThat(map.remove(1)).isSameAs(second);
+        assertThat(map.remove(1)).isNull();
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void growsAndKeepsEveryEntry() {
+        LongTaskMap map = new LongTaskMap(1);
+        Task task = new Task("task", "");
+
+        for (long id = 1; id <= 10_000; id++) {
+            map.put(id, task);
+        }
+
+        assertThat(map.size()).isEqualTo(10_000);
+        for (long id = 1; id <= 10_000; id++) {
+            assertThat(map.get(id)).isSameAs(task);
+        }
+    }
+
+    @Test
+    void removalKeepsCollidingEntriesReachable() {
+        LongTaskMap map = new LongTaskMap(16);
+        Map<Long, Task> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            long id = 1 + random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                Task task = new Task("task " + i, "");
+                assertThat(map.put(id, task)).isSameAs(expected.put(id, task));
+            } else {
+                assertThat(map.remove(id)).isSameAs(expected.remove(id));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long id = 1; id <= 2_000; id++) {
+            assertThat(map.get(id)).isSameAs(expected.get(id));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ctambaoan.taskapi.repository.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.repository.TaskRepository;
+import ctambaoan.taskapi.service.TaskService;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("memory")
+class MemoryProfileTest {
+
+    @Autowired
+    ApplicationContext context;
+
+    @Autowired
+    TaskRepository repository;
+
+    @Autowired
+    TaskService service;
+
+    @Test
+    void memoryProfileReplacesTheDatabase() {
+        assertThat(repository).isInstanceOf(InMemoryTaskRepository.class);
+        assertThat(context.getBeanNamesForType(DataSource.class)).isEmpty();
+    }
+
+    @Test
+    void serviceWorksAgainstTheMemoryEngine() {
+        Task task = service.create("memory", "");
+        Task deleted = service.create("deleted", "");
+
+        service.markAsDone(task.getId());
+        service.delete(deleted.getId());
+
+        assertThat(service.findById(task.getId()).getStatus()).isEqualTo(TaskStatus.DONE);
+        assertThat(service.findByStatus(TaskStatus.DONE)).extracting(Task::getId).contains(task.getId());
+        assertThat(service.findChangedSince(null, null, 100).deleted()).contains(deleted.getId());
+    }
+}
@@ -0,0 +1,135 @@
+package ctambaoan.taskapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.exception.ServiceOverloadedException;
+import ctambaoan.taskapi.exception.TaskNotFoundException;
+import ctambaoan.taskapi.exception.TaskRequestTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncTaskServiceTest {
+
+    @Mock
+    private TaskService service;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+
+    private ThreadPoolExecutor executor;
+    private AsyncTaskService asyncService;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        asyncService = new AsyncTaskService(service, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        asyncService.close();
+    }
+
+    @Test
+    void completesWithTheResultOfTheCall() throws Exception {
+        Task task = new Task("async", "");
+        when(service.findById(1L)).thenReturn(task);
+
+        assertThat(asyncService.findById(1L, TIMEOUT).get(1, TimeUnit.SECONDS)).isSameAs(task);
+    }
+
+    @Test
+    void completesExceptionallyWhenTheCallFails() {
+        when(service.findById(1L)).thenThrow(new TaskNotFoundException(1L));
+
+        assertThatThrownBy(() -> asyncService.findById(1L, TIMEOUT).get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TaskNotFoundException.class);
+    }
+
+    @Test
+    void rejectsCallsWhenTheQueueIsFull() throws Exception {
+        blockTheWorker();
+        asyncService.delete(2L, TIMEOUT);
+
+        CompletableFuture<Void> rejected = asyncService.delete(3L, TIMEOUT);
+
+        assertThatThrownBy(() -> rejected.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ServiceOverloadedException.class);
+    }
+
+    @Test
+    void cancellingAQueuedCallRemovesItFromTheQueue() throws Exception {
+        blockTheWorker();
+        CompletableFuture<Void> queued = asyncService.delete(2L, TIMEOUT);
+
+        queued.cancel(false);
+        release.countDown();
+        asyncService.close();
+
+        assertThat(executor.getQueue()).isEmpty();
+        verify(service, never()).delete(2L);
+    }
+
+    @Test
+    void timingOutAQueuedCallRemovesItFromTheQueue() throws Exception {
+        blockTheWorker();
+        CompletableFuture<Void> queued = asyncService.delete(2L, Duration.ofMillis(10));
+
+        assertThatThrownBy(() -> queued.get(1, TimeUnit.SECONDS))
+                .cause()
+                .isInstanceOfSatisfying(TaskRequestTimeoutException.class,
+                        ex -> assertThat(ex.isStarted()).isFalse());
+        release.countDown();
+        asyncService.close();
+
+        verify(service, never()).delete(2L);
+    }
+
+    @Test
+    void timingOutAStartedCallReportsThatItStarted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(service.findById(1L)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return new Task("blocking", "");
+        });
+
+        CompletableFuture<Task> running = asyncService.findById(1L, Duration.ofMillis(10));
+
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> running.get(1, TimeUnit.SECONDS))
+                .cause()
+                .isInstanceOfSatisfying(TaskRequestTimeoutException.class,
+                        ex -> assertThat(ex.isStarted()).isTrue());
+    }
+
+    private void blockTheWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        when(service.findById(1L)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return new Task("blocking", "");
+        });
+        asyncService.findById(1L, TIMEOUT);
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,77 @@
+package ctambaoan.taskapi.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ctambaoan.taskapi.config.ArchiveProperties;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TaskArchiverTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 12, 13, 10, 30);
+
+    @Mock
+    private TaskService service;
+
+    private TaskArchiver archiver;
+
+    @BeforeEach
+    void setup() {
+        ArchiveProperties properties = new ArchiveProperties(true, Duration.ofDays(30),
+                Duration.ofDays(365), Duration.ofMinutes(1), 2);
+        Clock clock = Clock.fixed(Instant.from(NOW.atOffset(ZoneOffset.UTC)), ZoneOffset.UTC);
+        archiver = new TaskArchiver(service, properties, clock);
+    }
+
+    @Test
+    void runShouldArchiveInBatchesUntilABatchComesBackShort() {
+        LocalDateTime archiveCutoff = NOW.minusDays(30);
+        when(service.archive(archiveCutoff, 2))
+                .thenReturn(Set.of(1L, 2L))
+                .thenReturn(Set.of(3L));
+
+        archiver.run();
+
+        verify(service, times(2)).archive(archiveCutoff, 2);
+    }
+
+    @Test
+    void runShouldPurgeUntilNothingIsLeft() {
+        LocalDateTime purgeCutoff = NOW.minusDays(365);
+        when(service.archive(NOW.minusDays(30), 2)).thenReturn(Set.of());
+        when(service.purgeArchive(purgeCutoff, 2)).thenReturn(2, 1, 0);
+
+        archiver.run();
+
+        verify(service, times(3)).purgeArchive(purgeCutoff, 2);
+    }
+
+    @Test
+    void runShouldStillPurgeTombstonesWhenArchivingIsDisabled() {
+        ArchiveProperties disabled = new ArchiveProperties(false, Duration.ofDays(30),
+                Duration.ofDays(365), Duration.ofMinutes(1), 2);
+        Clock clock = Clock.fixed(Instant.from(NOW.atOffset(ZoneOffset.UTC)), ZoneOffset.UTC);
+        LocalDateTime purgeCutoff = NOW.minusDays(365);
+        when(service.purgeArchive(purgeCutoff, 2)).thenReturn(1, 0);
+
+        new TaskArchiver(service, disabled, clock).run();
+
+        verify(service, never()).archive(any(), anyInt());
+        verify(service, times(2)).purgeArchive(purgeCutoff, 2);
+    }
+}
@@ -0,0 +1,53 @@
+package ctambaoan.taskapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ctambaoan.taskapi.domain.Task;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class TaskClaimConcurrencyTest {
+
+    private static final int TASKS = 500;
+    private static final int WORKERS = 16;
+
+    @Autowired
+    private TaskService service;
+
+    @Test
+    void concurrentClaimsNeverHandOutATaskTwice() {
+        Set<Long> created = service.createAll(IntStream.range(0, TASKS)
+                        .mapToObj(i -> new Task("queued " + i, ""))
+                        .toList()).stream()
+                .map(Task::getId)
+                .collect(Collectors.toSet());
+        ConcurrentLinkedQueue<Long> claimed = new ConcurrentLinkedQueue<>();
+
+        try (var executor = Executors.newFixedThreadPool(WORKERS)) {
+            for (int worker = 0; worker < WORKERS; worker++) {
+                String claimant = "worker-" + worker;
+                executor.submit(() -> {
+                    List<Task> batch;
+                    do {
+                        batch = service.claim(claimant, Duration.ofMinutes(5), 7);
+                        batch.forEach(task -> claimed.add(task.getId()));
+                    } while (!batch.isEmpty());
+                });
+            }
+        }
+
+        List<Long> ours = new ArrayList<>(claimed);
+        ours.retainAll(created);
+        assertThat(ours).hasSize(TASKS).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,129 @@
+package ctambaoan.taskapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ctambaoan.taskapi.config.TaskEventProperties;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskEvent;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.service.TaskEventFeed.Entry;
+import ctambaoan.taskapi.service.TaskEventFeed.Subscription;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TaskEventFeedTest {
+
+    private final TaskEventFeed feed =
+            new TaskEventFeed(new TaskEventProperties(4, 2, Duration.ofSeconds(15)));
+
+    @BeforeEach
+    void start() {
+        feed.start();
+    }
+
+    @AfterEach
+    void stop() {
+        feed.stop();
+    }
+
+    @Test
+    void subscriberShouldReceiveEventsWithIncreasingIds() throws InterruptedException {
+        Subscription subscription = feed.subscribe(null, null);
+
+        feed.on(TaskEvent.completed(1L));
+        feed.on(TaskEvent.deleted(1L));
+
+        Entry first = next(subscription);
+        Entry second = next(subscription);
+        assertThat(first.event()).isEqualTo(TaskEvent.completed(1L));
+        assertThat(second.event()).isEqualTo(TaskEvent.deleted(1L));
+        assertThat(second.id()).isEqualTo(first.id() + 1);
+        assertThat(subscription.resetRequired()).isFalse();
+    }
+
+    @Test
+    void subscribeShouldReplayEventsAfterLastEventId() throws InterruptedException {
+        Subscription first = feed.subscribe(null, null);
+        feed.on(TaskEvent.completed(1L));
+        feed.on(TaskEvent.completed(2L));
+        feed.on(TaskEvent.completed(3L));
+        long seen = next(first).id();
+
+        Subscription resumed = feed.subscribe(seen, null);
+
+        assertThat(next(resumed).event().taskId()).isEqualTo(2L);
+        assertThat(next(resumed).event().taskId()).isEqualTo(3L);
+        assertThat(resumed.poll(Duration.ZERO)).isNull();
+        assertThat(resumed.resetRequired()).isFalse();
+    }
+
+    @Test
+    void subscribeShouldRequireResetWhenLastEventIdIsNoLongerBuffered() {
+        Subscription first = feed.subscribe(null, null);
+        for (long id = 1; id <= 6; id++) {
+            feed.on(TaskEvent.deleted(id));
+        }
+        first.cancel();
+
+        Subscription resumed = feed.subscribe(first.resumeId() + 1, null);
+
+        assertThat(resumed.resetRequired()).isTrue();
+        assertThat(resumed.resumeId()).isEqualTo(first.resumeId() + 6);
+    }
+
+    @Test
+    void subscriberShouldOnlyReceiveEventsMatchingStatusOrWithoutOne() throws InterruptedException {
+        Subscription subscription = feed.subscribe(null, TaskStatus.DONE);
+
+        feed.on(TaskEvent.created(new Task("todo", "")));
+        feed.on(TaskEvent.completed(1L));
+        feed.on(TaskEvent.deleted(1L));
+
+        assertThat(next(subscription).event().type()).isEqualTo(TaskEvent.Type.COMPLETED);
+        assertThat(next(subscription).event().type()).isEqualTo(TaskEvent.Type.DELETED);
+    }
+
+    @Test
+    void publishingShouldNotWaitWhileEventsAreBeingDispatched() throws Exception {
+        Subscription subscription = feed.subscribe(null, null);
+        CountDownLatch dispatching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(() -> {
+                synchronized (feed) {
+                    dispatching.countDown();
+                    release.await();
+                }
+                return null;
+            });
+            assertThat(dispatching.await(5, TimeUnit.SECONDS)).isTrue();
+            feed.on(TaskEvent.deleted(1L));
+            release.countDown();
+        }
+
+        assertThat(next(subscription).event().taskId()).isEqualTo(1L);
+    }
+
+    @Test
+    void slowSubscriberShouldBeDroppedWhenItsQueueIsFull() {
+        Subscription slow = feed.subscribe(null, null);
+
+        feed.on(TaskEvent.deleted(1L));
+        feed.on(TaskEvent.deleted(2L));
+        feed.on(TaskEvent.deleted(3L));
+
+        assertThat(feed.subscriberCount()).isZero();
+        assertThat(slow.isOpen()).isFalse();
+    }
+
+    private static Entry next(Subscription subscription) throws InterruptedException {
+        return subscription.poll(Duration.ofSeconds(5));
+    }
+}
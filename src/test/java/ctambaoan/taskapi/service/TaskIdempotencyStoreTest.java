@@ -0,0 +1,105 @@
+package ctambaoan.taskapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ctambaoan.taskapi.config.IdempotencyProperties;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.exception.IdempotencyKeyReusedException;
+import ctambaoan.taskapi.exception.TaskQueueFullException;
+import ctambaoan.taskapi.service.TaskIdempotencyStore.Creation;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class TaskIdempotencyStoreTest {
+
+    private final TaskService service = mock(TaskService.class);
+    private final TaskIdempotencyStore store = new TaskIdempotencyStore(service,
+            new IdempotencyProperties(100, Duration.ofMinutes(1)));
+
+    @Test
+    void retryReturnsTheTaskCreatedFirst() {
+        Task task = new Task(7L, "name", "description", TaskStatus.TODO, LocalDateTime.now(),
+                LocalDateTime.now(), null, null, 0L, null);
+        when(service.create("name", "description")).thenReturn(task);
+
+        Creation first = store.create("key", "name", "description");
+        Creation retry = store.create("key", "name", "description");
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(first.task()).isSameAs(task);
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.task()).usingRecursiveComparison().ignoringFields("updated").isEqualTo(task);
+        verify(service, times(1)).create("name", "description");
+    }
+
+    @Test
+    void keyReusedForDifferentTaskIsRejected() {
+        when(service.create("name", "description")).thenReturn(new Task("name", "description"));
+        store.create("key", "name", "description");
+
+        assertThatThrownBy(() -> store.create("key", "name", "other"))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void keyReusedForBodyWithSameStringHashIsRejected() {
+        when(service.create("name", "Aa")).thenReturn(new Task("name", "Aa"));
+        store.create("key", "name", "Aa");
+
+        assertThatThrownBy(() -> store.create("key", "name", "BB"))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void failedCreateCanBeRetried() {
+        Task task = new Task("name", "");
+        when(service.create("name", ""))
+                .thenThrow(new TaskQueueFullException())
+                .thenReturn(task);
+
+        assertThatThrownBy(() -> store.create("key", "name", ""))
+                .isInstanceOf(TaskQueueFullException.class);
+        assertThat(store.create("key", "name", "").task()).isSameAs(task);
+    }
+
+    @Test
+    void concurrentDuplicatesCreateOnce() throws Exception {
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Task task = new Task("name", "");
+        when(service.create("name", "")).thenAnswer(invocation -> {
+            creating.countDown();
+            release.await();
+            return task;
+        });
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            Future<Creation> first = executor.submit(() -> store.create("key", "name", ""));
+            creating.await();
+            List<Future<Creation>> duplicates = IntStream.range(0, 3)
+                    .mapToObj(i -> executor.submit(() -> store.create("key", "name", "")))
+                    .toList();
+            release.countDown();
+
+            assertThat(first.get().replayed()).isFalse();
+            for (Future<Creation> duplicate : duplicates) {
+                assertThat(duplicate.get().replayed()).isTrue();
+                assertThat(duplicate.get().task().getCreated()).isEqualTo(task.getCreated());
+            }
+        }
+        verify(service, times(1)).create("name", "");
+    }
+}
@@ -0,0 +1,40 @@
+package ctambaoan.taskapi.service;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ctambaoan.taskapi.config.TaskQueueProperties;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TaskLeaseReaperTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    @Mock
+    private TaskService service;
+
+    @Test
+    void runShouldReleaseInBatchesUntilABatchComesBackShort() {
+        TaskQueueProperties properties = new TaskQueueProperties(Duration.ofMinutes(5), 100,
+                Duration.ofSeconds(10), 2);
+        Clock clock = Clock.fixed(Instant.from(NOW.atOffset(ZoneOffset.UTC)), ZoneOffset.UTC);
+        when(service.releaseExpiredLeases(NOW, 2))
+                .thenReturn(Set.of(1L, 2L))
+                .thenReturn(Set.of(3L));
+
+        new TaskLeaseReaper(service, properties, clock).run();
+
+        verify(service, times(2)).releaseExpiredLeases(NOW, 2);
+    }
+}
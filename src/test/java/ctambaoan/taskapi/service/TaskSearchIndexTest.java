@@ -0,0 +1,86 @@
+package ctambaoan.taskapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskEvent;
+import ctambaoan.taskapi.repository.TaskRepository;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSearchIndexTest {
+
+    @Mock
+    private TaskRepository repository;
+
+    @InjectMocks
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index.add(1L, "Buy groceries", "Milk, eggs, bread");
+        index.add(2L, "Buy a bike", "Road bike for commuting");
+        index.add(3L, "Fix the bike", "Flat tyre");
+    }
+
+    @Test
+    void shouldMatchTermsCaseInsensitivelyInNameAndDescription() {
+        assertThat(index.search("BIKE", 10)).containsExactly(2L, 3L);
+        assertThat(index.search("milk", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void shouldRequireEveryTerm() {
+        assertThat(index.search("buy bike", 10)).containsExactly(2L);
+        assertThat(index.search("buy unicorn", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldMatchPrefixTerms() {
+        assertThat(index.search("gro*", 10)).containsExactly(1L);
+        assertThat(index.search("b*", 10)).containsExactly(1L, 2L, 3L);
+        assertThat(index.search("b* fl*", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void shouldStopAtLimit() {
+        assertThat(index.search("b*", 2)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldFollowDescriptionUpdates() {
+        index.on(TaskEvent.descriptionUpdated(3L, "Puncture"));
+
+        assertThat(index.search("flat", 10)).isEmpty();
+        assertThat(index.search("puncture", 10)).containsExactly(3L);
+        assertThat(index.search("fix", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void shouldForgetDeletedTasks() {
+        index.on(TaskEvent.deleted(2L));
+
+        assertThat(index.search("bike", 10)).containsExactly(3L);
+        assertThat(index.search("commuting", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldLoadExistingTasksAtStartup() {
+        Task task = new Task("Water plants", "");
+        ReflectionTestUtils.setField(task, "id", 4L);
+        when(repository.streamAll()).thenReturn(Stream.of(task));
+
+        index.afterSingletonsInstantiated();
+
+        assertThat(index.search("plants", 10)).containsExactly(4L);
+    }
+}
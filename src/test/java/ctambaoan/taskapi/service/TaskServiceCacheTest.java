@@ -0,0 +1,174 @@
+package ctambaoan.taskapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class TaskServiceCacheTest {
+
+    @Autowired
+    private TaskService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Cache cache;
+
+    @BeforeEach
+    void setup() {
+        cache = cacheManager.getCache(TaskServiceImpl.CACHE);
+        cache.clear();
+    }
+
+    @Test
+    void createShouldPopulateCache() {
+        Task task = service.create("cached", "");
+
+        assertThat(cache.get(task.getId(), Task.class)).isSameAs(task);
+    }
+
+    @Test
+    void findByIdShouldServeRepeatedReadsFromCache() {
+        Long id = service.create("cached", "").getId();
+        cache.clear();
+
+        Task first = service.findById(id);
+        Task second = service.findById(id);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void markAsDoneShouldEvictCachedTask() {
+        Long id = service.create("cached", "").getId();
+
+        service.markAsDone(id);
+
+        assertThat(cache.get(id)).isNull();
+    }
+
+    @Test
+    void updateDescriptionShouldEvictCachedTask() {
+        Long id = service.create("cached", "").getId();
+
+        service.updateDescription(id, "changed");
+
+        assertThat(cache.get(id)).isNull();
+        assertThat(service.findById(id).getDescription()).isEqualTo("changed");
+    }
+
+    @Test
+    void deleteShouldEvictCachedTask() {
+        Long id = service.create("cached", "").getId();
+
+        service.delete(id);
+
+        assertThat(cache.get(id)).isNull();
+    }
+
+    @Test
+    void claimShouldCacheClaimedTasksAndReapingShouldEvictThem() {
+        Long id = service.create("cached", "").getId();
+        service.findById(id);
+
+        List<Task> claimed = service.claim("worker", Duration.ofMinutes(-1), 1000);
+        assertThat(claimed).extracting(Task::getId).contains(id);
+        assertThat(cache.get(id, Task.class).getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+
+        service.releaseExpiredLeases(LocalDateTime.now(), 1000);
+        assertThat(cache.get(id)).isNull();
+        assertThat(service.findById(id).getStatus()).isEqualTo(TaskStatus.TODO);
+    }
+
+    @Test
+    void claimShouldNotCacheTasksBeforeCommit() {
+        Long id = service.create("cached", "").getId();
+        cache.clear();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(service.claim("worker", Duration.ofMinutes(1), 1000))
+                    .extracting(Task::getId).contains(id);
+            assertThat(cache.get(id)).isNull();
+            status.setRollbackOnly();
+        });
+
+        assertThat(cache.get(id)).isNull();
+        assertThat(service.findById(id).getStatus()).isEqualTo(TaskStatus.TODO);
+    }
+
+    @Test
+    void renewLeaseShouldCacheTheRenewedTask() {
+        Long id = service.create("cached", "").getId();
+        service.claim("worker", Duration.ofMinutes(1), 1000);
+
+        Task renewed = service.renewLease(id, "worker", Duration.ofMinutes(5));
+
+        assertThat(cache.get(id, Task.class)).isSameAs(renewed);
+    }
+
+    @Test
+    void archiveShouldEvictOnlyArchivedTasks() {
+        Task archived = service.create("archived", "");
+        service.markAsDone(archived.getId());
+        service.findById(archived.getId());
+        Task live = service.create("live", "");
+
+        assertThat(service.archive(LocalDateTime.now().plusMinutes(1), 1000)).contains(archived.getId());
+
+        assertThat(cache.get(archived.getId())).isNull();
+        assertThat(cache.get(live.getId(), Task.class)).isSameAs(live);
+    }
+
+    @Test
+    void markAllAsDoneShouldEvictOnlyTheCompletedTasks() {
+        Long completed = service.create("completed", "").getId();
+        Task untouched = service.create("untouched", "");
+
+        service.markAllAsDone(List.of(completed));
+
+        assertThat(cache.get(completed)).isNull();
+        assertThat(cache.get(untouched.getId(), Task.class)).isSameAs(untouched);
+    }
+
+    @Test
+    void deleteAllShouldEvictOnlyTheDeletedTasks() {
+        Long deleted = service.create("deleted", "").getId();
+        Task untouched = service.create("untouched", "");
+
+        service.deleteAll(List.of(deleted));
+
+        assertThat(cache.get(deleted)).isNull();
+        assertThat(cache.get(untouched.getId(), Task.class)).isSameAs(untouched);
+    }
+
+    @Test
+    void archiveShouldKeepCachedTasksUntilCommit() {
+        Task done = service.create("done", "");
+        service.markAsDone(done.getId());
+        Task cached = service.findById(done.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(service.archive(LocalDateTime.now().plusMinutes(1), 1000)).contains(done.getId());
+            assertThat(cache.get(done.getId(), Task.class)).isSameAs(cached);
+            status.setRollbackOnly();
+        });
+
+        assertThat(cache.get(done.getId(), Task.class)).isSameAs(cached);
+    }
+}
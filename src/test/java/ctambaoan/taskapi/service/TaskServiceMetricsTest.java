@@ -0,0 +1,43 @@
+package ctambaoan.taskapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ctambaoan.taskapi.exception.TaskNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class TaskServiceMetricsTest {
+
+    @Autowired
+    private TaskService service;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void operationsShouldBeTimedPerMethod() {
+        service.create("timed", "");
+        assertThatThrownBy(() -> service.findById(-1L))
+                .isInstanceOf(TaskNotFoundException.class);
+
+        assertThat(registry.get(TaskServiceImpl.TIMER).tag("method", "create").timer().count())
+                .isGreaterThanOrEqualTo(1);
+        assertThat(registry.get(TaskServiceImpl.TIMER).tag("method", "findById")
+                .tag("exception", "TaskNotFoundException").timer().count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void listOperationsShouldRecordResultSize() {
+        service.create("sized", "");
+
+        int size = service.findAll().size();
+
+        assertThat(registry.get(TaskMetrics.RESULT_SIZE).tag("operation", "findAll")
+                .summary().max()).isGreaterThanOrEqualTo(size);
+    }
+}
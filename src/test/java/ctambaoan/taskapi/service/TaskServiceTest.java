@@ -3,20 +3,36 @@ package ctambaoan.taskapi.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskChanges;
+import ctambaoan.taskapi.domain.TaskEvent;
 import ctambaoan.taskapi.domain.TaskStatus;
 import ctambaoan.taskapi.exception.TaskNotFoundException;
+import ctambaoan.taskapi.exception.TaskVersionMismatchException;
+import ctambaoan.taskapi.repository.ArchivedTaskRepository;
 import ctambaoan.taskapi.repository.TaskRepository;
+import ctambaoan.taskapi.repository.TaskStatusCount;
+import ctambaoan.taskapi.repository.TaskTombstone;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class TaskServiceTest {
@@ -24,6 +40,24 @@ class TaskServiceTest {
     @Mock
     private TaskRepository repository;
 
+    @Mock
+    private ArchivedTaskRepository archive;
+
+    @Mock
+    private TaskMetrics metrics;
+
+    @Mock
+    private TaskSearchIndex searchIndex;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private ObjectProvider<TaskWriteBehindQueue> writeBehind;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private TaskServiceImpl service;
 
@@ -35,9 +69,38 @@ class TaskServiceTest {
         Task result = service.create("Hello", "World");
 
         verify(repository).save(any(Task.class));
+        verify(events).publishEvent(TaskEvent.created(savedTask));
         assertThat(result).isEqualTo(savedTask);
     }
 
+    @Test
+    void createShouldHandTaskToWriteBehindQueueWhenConfigured() {
+        TaskWriteBehindQueue queue = mock(TaskWriteBehindQueue.class);
+        Task queued = new Task("Hello", "World");
+        when(writeBehind.getIfAvailable()).thenReturn(queue);
+        when(queue.enqueue(any(Task.class))).thenReturn(queued);
+
+        Task result = service.create("Hello", "World");
+
+        assertThat(result).isSameAs(queued);
+        verify(repository, never()).save(any(Task.class));
+        verify(events, never()).publishEvent(any());
+    }
+
+    @Test
+    void searchShouldLoadMatchingTasksInIdOrder() {
+        Task first = new Task("bike", "");
+        Task second = new Task("bike", "");
+        ReflectionTestUtils.setField(first, "id", 1L);
+        ReflectionTestUtils.setField(second, "id", 2L);
+        when(searchIndex.search("bike", 10)).thenReturn(List.of(1L, 2L));
+        when(repository.findAllById(List.of(1L, 2L))).thenReturn(List.of(second, first));
+
+        List<Task> result = service.search("bike", 10);
+
+        assertThat(result).containsExactly(first, second);
+    }
+
     @Test
     void findByIdWhenExistsShouldReturnTask() {
         Optional<Task> foundTask = Optional.of(new Task("name", "desc"));
@@ -66,6 +129,7 @@ class TaskServiceTest {
 
         List<Task> result = service.findAll();
         assertThat(result).isEqualTo(mockTasks);
+        verify(metrics).recordResultSize("findAll", 2);
     }
 
     @Test
@@ -79,29 +143,118 @@ class TaskServiceTest {
         assertThat(result).isEqualTo(mockTodos);
     }
 
+    @Test
+    void countByStatusShouldIncludeStatusesWithoutTasks() {
+        when(repository.countByStatus()).thenReturn(List.of(
+                new TaskStatusCount(TaskStatus.TODO, 4)));
+
+        assertThat(service.countByStatus())
+                .containsEntry(TaskStatus.TODO, 4L)
+                .containsEntry(TaskStatus.IN_PROGRESS, 0L)
+                .containsEntry(TaskStatus.DONE, 0L)
+                .containsEntry(TaskStatus.CANCELLED, 0L);
+    }
+
+    @Test
+    void findPageShouldStartFromTheBeginningWithoutCursor() {
+        List<Task> mockTasks = List.of(new Task("task1", ""));
+        when(repository.findPage(0L, 10)).thenReturn(mockTasks);
+
+        List<Task> result = service.findPage(null, 10);
+        assertThat(result).isEqualTo(mockTasks);
+    }
+
+    @Test
+    void findPageByStatusShouldContinueAfterCursor() {
+        List<Task> mockTasks = List.of(new Task("task1", ""));
+        when(repository.findPageByStatus(TaskStatus.TODO, 42L, 10)).thenReturn(mockTasks);
+
+        List<Task> result = service.findPageByStatus(TaskStatus.TODO, 42L, 10);
+        assertThat(result).isEqualTo(mockTasks);
+    }
+
     @Test
     void markAsDoneShouldUpdateStatusWhenTaskExists() {
-        Optional<Task> mockTask = Optional.of(new Task("mock", "desc"));
-        when(repository.findById(any(Long.class))).thenReturn(mockTask);
+        when(repository.updateStatus(1L, TaskStatus.DONE)).thenReturn(1);
 
         service.markAsDone(1L);
 
-        verify(repository).save(any(Task.class));
-        assertThat(mockTask.get().getStatus()).isEqualTo(TaskStatus.DONE);
+        InOrder order = inOrder(repository);
+        order.verify(repository).nextChange();
+        order.verify(repository).updateStatus(1L, TaskStatus.DONE);
+        verify(repository, never()).findById(any(Long.class));
+        verify(events).publishEvent(TaskEvent.completed(1L));
     }
 
     @Test
     void markAsDoneShouldThrowExceptionWhenTaskNotFound() {
-        when(repository.findById(any(Long.class))).thenReturn(Optional.empty());
+        when(repository.updateStatus(1L, TaskStatus.DONE)).thenReturn(0);
 
         assertThatThrownBy(() -> service.markAsDone(1L))
                 .isInstanceOf(TaskNotFoundException.class)
                 .hasMessageContaining("Task with ID: 1 does not exist in our records");
     }
 
+    @Test
+    void markAsDoneWithVersionShouldThrowMismatchWhenTaskExists() {
+        when(repository.updateStatus(1L, TaskStatus.DONE, 2L)).thenReturn(0);
+        when(repository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> service.markAsDone(1L, 2L))
+                .isInstanceOf(TaskVersionMismatchException.class);
+    }
+
+    @Test
+    void deleteWithVersionShouldThrowNotFoundWhenTaskIsMissing() {
+        when(repository.removeById(1L, 2L)).thenReturn(0);
+        when(repository.existsById(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.delete(1L, 2L))
+                .isInstanceOf(TaskNotFoundException.class);
+    }
+
+    @Test
+    void updateDescriptionWithVersionShouldNotLookUpTaskWhenApplied() {
+        when(repository.updateDescription(1L, "Hello", 2L)).thenReturn(1);
+
+        service.updateDescription(1L, "Hello", 2L);
+
+        verify(repository, never()).existsById(any(Long.class));
+    }
+
+    @Test
+    void createAllShouldSaveAllTasksInOneCall() {
+        List<Task> tasks = List.of(new Task("task1", ""), new Task("task2", ""));
+        when(repository.saveAll(tasks)).thenReturn(tasks);
+
+        List<Task> result = service.createAll(tasks);
+
+        assertThat(result).isEqualTo(tasks);
+    }
+
+    @Test
+    void markAllAsDoneShouldOnlyUpdateExistingTasks() {
+        when(repository.findExistingIds(Set.of(1L, 2L))).thenReturn(List.of(1L));
+
+        Set<Long> result = service.markAllAsDone(List.of(1L, 2L));
+
+        verify(repository).updateStatus(Set.of(1L), TaskStatus.DONE);
+        assertThat(result).containsExactly(1L);
+    }
+
+    @Test
+    void deleteAllShouldSkipStatementWhenNothingExists() {
+        when(repository.findExistingIds(Set.of(1L))).thenReturn(List.of());
+
+        Set<Long> result = service.deleteAll(List.of(1L));
+
+        verify(repository, never()).deleteByIdIn(any());
+        assertThat(result).isEmpty();
+    }
+
     @Test
     void deleteShouldThrowExceptionWhenTaskNotFound() {
-        when(repository.existsById(any(Long.class))).thenReturn(false);
+        when(repository.removeById(1L)).thenReturn(0);
 
         assertThatThrownBy(() -> service.delete(1L))
                 .isInstanceOf(TaskNotFoundException.class)
@@ -110,16 +263,85 @@ class TaskServiceTest {
 
     @Test
     void deleteShouldDeleteTaskWhenExists() {
-        when(repository.existsById(any(Long.class))).thenReturn(true);
+        when(repository.removeById(1L)).thenReturn(1);
 
         service.delete(1L);
 
-        verify(repository).deleteById(any(Long.class));
+        verify(repository).removeById(1L);
+        verify(repository).addTombstone(1L);
+        verify(events).publishEvent(TaskEvent.deleted(1L));
+    }
+
+    @Test
+    void findChangedSinceShouldMergeChangesUpToTheLastCommittedOne() {
+        Task first = changed(1L, 5L);
+        Task second = changed(3L, 8L);
+        when(repository.lastChange()).thenReturn(9L);
+        when(repository.findChangedSince(4L, Long.MAX_VALUE, 9L, 10)).thenReturn(List.of(first, second));
+        when(repository.findDeletedSince(4L, Long.MAX_VALUE, 9L, 10)).thenReturn(List.of(new TaskTombstone(2L, 6L)));
+
+        TaskChanges result = service.findChangedSince(4L, null, 10);
+
+        assertThat(result.changed()).containsExactly(first, second);
+        assertThat(result.deleted()).containsExactly(2L);
+        assertThat(result.watermark()).isEqualTo(9L);
+        assertThat(result.after()).isNull();
+    }
+
+    @Test
+    void findChangedSinceShouldEndAFullPageAtItsLastChange() {
+        Task first = changed(1L, 5L);
+        when(repository.lastChange()).thenReturn(9L);
+        when(repository.findChangedSince(4L, Long.MAX_VALUE, 9L, 2)).thenReturn(List.of(first, changed(3L, 8L)));
+        when(repository.findDeletedSince(4L, Long.MAX_VALUE, 9L, 2)).thenReturn(List.of(new TaskTombstone(2L, 6L)));
+
+        TaskChanges result = service.findChangedSince(4L, null, 2);
+
+        assertThat(result.changed()).containsExactly(first);
+        assertThat(result.deleted()).containsExactly(2L);
+        assertThat(result.watermark()).isEqualTo(6L);
+        assertThat(result.after()).isEqualTo(2L);
+    }
+
+    @Test
+    void archiveShouldMoveLockedTasksAndLeaveTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        when(repository.lockArchivable(cutoff, 10)).thenReturn(List.of(1L, 2L));
+
+        Set<Long> result = service.archive(cutoff, 10);
+
+        verify(repository).copyToArchive(List.of(1L, 2L));
+        verify(repository).addTombstones(List.of(1L, 2L));
+        verify(repository).deleteByIdIn(List.of(1L, 2L));
+        verify(events).publishEvent(TaskEvent.archived(1L));
+        assertThat(result).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void archiveShouldNotWriteWhenNothingIsArchivable() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        when(repository.lockArchivable(cutoff, 10)).thenReturn(List.of());
+
+        assertThat(service.archive(cutoff, 10)).isEmpty();
+        verify(repository, never()).copyToArchive(any());
+    }
+
+    @Test
+    void findChangedSinceWithoutWatermarkShouldStartFromTheFirstChange() {
+        Task task = changed(1L, 1L);
+        when(repository.lastChange()).thenReturn(3L);
+        when(repository.findChangedSince(0L, Long.MAX_VALUE, 3L, 100)).thenReturn(List.of(task));
+
+        TaskChanges result = service.findChangedSince(null, null, 100);
+
+        assertThat(result.changed()).containsExactly(task);
+        assertThat(result.deleted()).isEmpty();
+        assertThat(result.watermark()).isEqualTo(3L);
     }
 
     @Test
     void updateDescriptionShouldThrowExceptionWhenTaskNotFound() {
-        when(repository.findById(any(Long.class))).thenReturn(Optional.empty());
+        when(repository.updateDescription(1L, "Hello World!")).thenReturn(0);
 
         assertThatThrownBy(() -> service.updateDescription(1L, "Hello World!"))
                 .isInstanceOf(TaskNotFoundException.class)
@@ -128,12 +350,26 @@ class TaskServiceTest {
 
     @Test
     void updateDescriptionShouldUpdateWhenTaskExists() {
-        Optional<Task> mockTask = Optional.of(new Task("task1", ""));
-        when(repository.findById(any(Long.class))).thenReturn(mockTask);
+        when(repository.updateDescription(1L, "Hello World!")).thenReturn(1);
 
         service.updateDescription(1L, "Hello World!");
 
-        verify(repository).save(any(Task.class));
+        verify(repository).updateDescription(1L, "Hello World!");
+        verify(events).publishEvent(TaskEvent.descriptionUpdated(1L, "Hello World!"));
     }
 
+    @Test
+    void updateDescriptionShouldRejectBlankDescriptionWithoutWriting() {
+        assertThatThrownBy(() -> service.updateDescription(1L, " "))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Description cannot be blank");
+
+        verify(repository, never()).updateDescription(any(Long.class), any(String.class));
+    }
+
+
+    private static Task changed(long id, long changeNumber) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Task(id, "task" + id, "", TaskStatus.TODO, now, now, null, null, 0L, changeNumber);
+    }
 }
@@ -0,0 +1,113 @@
+package ctambaoan.taskapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import ctambaoan.taskapi.config.WriteBehindProperties;
+import ctambaoan.taskapi.domain.Task;
+import ctambaoan.taskapi.domain.TaskStatus;
+import ctambaoan.taskapi.exception.TaskQueueFullException;
+import ctambaoan.taskapi.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.jdbc.core.JdbcAggregateOperations;
+import org.springframework.transaction.support.TransactionOperations;
+
+@SpringBootTest(properties = "task-api.write-behind.enabled=true")
+class TaskWriteBehindQueueTest {
+
+    @Autowired
+    private TaskService service;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private TaskWriteBehindQueue queue;
+
+    @Test
+    void createShouldReturnTaskWithReservedIdAndPersistItLater() throws InterruptedException {
+        Task task = service.create("buffered", "write");
+
+        assertThat(task.getId()).isNotNull();
+        assertThat(task.getVersion()).isZero();
+        assertThat(service.findById(task.getId()).getName()).isEqualTo("buffered");
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!repository.existsById(task.getId()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(repository.existsById(task.getId())).isTrue();
+        assertThat(queue.pending()).isZero();
+    }
+
+    @Test
+    void writeRightAfterCreateShouldWaitForTheInsert() {
+        Task task = service.create("buffered", "complete me");
+
+        service.markAsDone(task.getId());
+
+        assertThat(repository.findById(task.getId())).hasValueSatisfying(
+                stored -> assertThat(stored.getStatus()).isEqualTo(TaskStatus.DONE));
+    }
+
+    @Test
+    void enqueueShouldFailWhenBufferStaysFull() {
+        TaskRepository ids = mock(TaskRepository.class);
+        when(ids.reserveIds(10)).thenReturn(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+        WriteBehindProperties properties = new WriteBehindProperties(
+                true, 1, 10, Duration.ofMillis(100), Duration.ofMillis(10), 10, Duration.ofSeconds(1));
+        TaskWriteBehindQueue unstarted = new TaskWriteBehindQueue(ids,
+                mock(JdbcAggregateOperations.class), TransactionOperations.withoutTransaction(),
+                mock(ApplicationEventPublisher.class), new ConcurrentMapCacheManager(),
+                new TaskMetrics(new SimpleMeterRegistry()), properties);
+
+        unstarted.enqueue(new Task("first", ""));
+
+        assertThatThrownBy(() -> unstarted.enqueue(new Task("second", "")))
+                .isInstanceOf(TaskQueueFullException.class);
+        assertThat(unstarted.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void failingBatchShouldStayPendingUntilGivenUpOnStop() throws InterruptedException {
+        TaskRepository ids = mock(TaskRepository.class);
+        when(ids.reserveIds(10)).thenReturn(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+        JdbcAggregateOperations aggregates = mock(JdbcAggregateOperations.class);
+        doThrow(new DataAccessResourceFailureException("down")).when(aggregates).insertAll(any());
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WriteBehindProperties properties = new WriteBehindProperties(
+                true, 10, 10, Duration.ofMillis(10), Duration.ofMillis(10), 10, Duration.ofSeconds(1));
+        TaskWriteBehindQueue failing = new TaskWriteBehindQueue(ids, aggregates,
+                TransactionOperations.withoutTransaction(), mock(ApplicationEventPublisher.class),
+                cacheManager, new TaskMetrics(registry), properties);
+        Cache cache = cacheManager.getCache(TaskServiceImpl.CACHE);
+
+        Task task = failing.enqueue(new Task("lost", ""));
+        cache.put(task.getId(), task);
+        failing.start();
+        Thread.sleep(500);
+
+        assertThat(failing.findPending(task.getId())).isPresent();
+        assertThat(cache.get(task.getId())).isNotNull();
+        assertThat(registry.counter(TaskMetrics.WRITE_BEHIND_DROPPED).count()).isZero();
+
+        failing.stop();
+
+        assertThat(failing.findPending(task.getId())).isEmpty();
+        assertThat(cache.get(task.getId())).isNull();
+        assertThat(registry.counter(TaskMetrics.WRITE_BEHIND_DROPPED).count()).isEqualTo(1);
+    }
+}